@@ -2,25 +2,33 @@ package edu.ccrm.cli;
 
 import edu.ccrm.config.AppConfig;
 import edu.ccrm.domain.*;
+import edu.ccrm.exception.CourseFullException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
 import edu.ccrm.io.BackupService;
+import edu.ccrm.io.SnapshotService;
 import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.JournalService;
+import edu.ccrm.io.SnapshotScheduler;
 import edu.ccrm.service.*;
-import edu.ccrm.util.Comparators;
 import edu.ccrm.util.RecursiveUtils;
 import edu.ccrm.util.Validator;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.InputMismatchException;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class MainCLI {
+    // Rows fetched per page by the list screens
+    private static final int PAGE_SIZE = 20;
+
     private final Scanner scanner;
     private final AppConfig config;
     private final StudentService studentService;
@@ -28,6 +36,13 @@ public class MainCLI {
     private final EnrollmentService enrollmentService;
     private final ImportExportService importExportService;
     private final BackupService backupService;
+    private final SnapshotService snapshotService;
+    private final JournalService journal; // Null if the journal could not be opened
+    private final SnapshotScheduler snapshotScheduler; // Null without a journal
+    private Exception reportedSnapshotFailure;
+    private final GpaLeaderboard leaderboard;
+    private final ReadModel readModel; // Point-in-time views for reports
+    private final GradeAnalytics gradeAnalytics;
     private final Validator validator;
 
     public MainCLI() {
@@ -36,9 +51,19 @@ public class MainCLI {
         this.validator = new Validator();
         this.studentService = new StudentServiceImpl(validator);
         this.courseService = new CourseServiceImpl();
-        this.enrollmentService = new EnrollmentServiceImpl();
-        this.importExportService = new ImportExportService(studentService, courseService, enrollmentService, validator);
+        EnrollmentServiceImpl enrollments = new EnrollmentServiceImpl();
+        this.enrollmentService = enrollments;
+        // Re-weights GPAs on credit changes, so it goes before the listeners that read them
+        this.courseService.addListener(enrollments);
+        this.leaderboard = new GpaLeaderboard();
+        this.enrollmentService.addListener(leaderboard);
+        this.courseService.addListener(leaderboard);
+        // Exports read its views; it is seeded and registered once loading is done
+        this.readModel = new ReadModel();
+        this.importExportService = new ImportExportService(studentService, courseService, enrollmentService,
+                readModel, validator);
         this.backupService = new BackupService(importExportService, config);
+        this.snapshotService = new SnapshotService(studentService, courseService, enrollmentService);
 
         // Load configuration
         config.loadConfig();
@@ -50,6 +75,67 @@ public class MainCLI {
         } catch (IOException e) {
             System.err.println("Error creating directories: " + e.getMessage());
         }
+
+        // Warm start from the snapshot saved on the last exit
+        if (Files.exists(config.getSnapshotFilePath())) {
+            try {
+                long start = System.nanoTime();
+                int loaded = snapshotService.loadSnapshot(config.getSnapshotFilePath());
+                System.out.println("Loaded " + loaded + " records from snapshot " + config.getSnapshotFilePath() +
+                        " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            } catch (IOException e) {
+                System.err.println("Error loading snapshot: " + e.getMessage());
+            }
+        }
+
+        // Replay mutations made after that snapshot, then journal new ones
+        this.journal = openJournal();
+
+        // Background snapshots fold the journal into the snapshot as it grows
+        this.snapshotScheduler = journal != null ? new SnapshotScheduler(journal, config) : null;
+        if (snapshotScheduler != null) {
+            snapshotScheduler.start();
+        }
+
+        // Seeded once loading is done, then kept current by events
+        refreshReadModel();
+        studentService.addListener(readModel);
+        courseService.addListener(readModel);
+        enrollmentService.addListener(readModel);
+
+        // Grade histograms are counted once from a view, then updated per event
+        this.gradeAnalytics = new GradeAnalytics();
+        gradeAnalytics.rebuild(readModel.snapshot());
+        enrollmentService.addListener(gradeAnalytics);
+        courseService.addListener(gradeAnalytics);
+    }
+
+    private void refreshReadModel() {
+        readModel.refresh(studentService.viewAllStudents(), courseService.viewAllCourses(),
+                enrollmentService.viewAllEnrollments());
+    }
+
+    private JournalService openJournal() {
+        try {
+            JournalService journal = new JournalService(config.getJournalFilePath());
+            journal.replay(studentService, courseService, enrollmentService);
+            studentService.addListener(journal);
+            courseService.addListener(journal);
+            enrollmentService.addListener(journal);
+            return journal;
+        } catch (IOException e) {
+            System.err.println("Error opening journal, changes will not survive a crash: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Runs a bulk change with one journal commit at the end rather than one per record
+    private void runJournaled(JournalService.Batch batch) throws IOException {
+        if (journal != null) {
+            journal.inBatch(batch);
+        } else {
+            batch.run();
+        }
     }
 
     public void start() {
@@ -58,6 +144,7 @@ public class MainCLI {
         boolean running = true;
 
         while (running) {
+            reportSnapshotFailure();
             printMainMenu();
 
             try {
@@ -88,6 +175,7 @@ public class MainCLI {
                         break;
                     case 8:
                         running = false;
+                        saveSnapshot();
                         System.out.println("Exiting application. Goodbye!");
                         break;
                     default:
@@ -102,6 +190,39 @@ public class MainCLI {
         scanner.close();
     }
 
+    // Reports a background snapshot failure once, rather than before every menu
+    private void reportSnapshotFailure() {
+        if (snapshotScheduler == null) return;
+
+        Exception failure = snapshotScheduler.getLastFailure();
+        if (failure != null && failure != reportedSnapshotFailure) {
+            System.err.println("Background snapshot failed: " + failure.getMessage());
+        }
+        reportedSnapshotFailure = failure;
+    }
+
+    private void saveSnapshot() {
+        try {
+            if (snapshotScheduler != null) snapshotScheduler.close();
+            long start = System.nanoTime();
+            int saved = snapshotService.saveSnapshot(config.getSnapshotFilePath());
+            System.out.println("Saved " + saved + " records to snapshot " + config.getSnapshotFilePath() +
+                    " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            // The snapshot covers everything journaled so far
+            if (journal != null) journal.reset();
+        } catch (IOException e) {
+            System.err.println("Error saving snapshot: " + e.getMessage());
+        }
+
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing journal: " + e.getMessage());
+            }
+        }
+    }
+
     private void printMainMenu() {
         System.out.println("\n=== MAIN MENU ===");
         System.out.println("1. Manage Students");
@@ -127,7 +248,8 @@ public class MainCLI {
             System.out.println("5. Deactivate Student");
             System.out.println("6. Print Student Profile");
             System.out.println("7. Print Student Transcript");
-            System.out.println("8. Back to Main Menu");
+            System.out.println("8. Search Students by Name");
+            System.out.println("9. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -157,6 +279,9 @@ public class MainCLI {
                         printStudentTranscript();
                         break;
                     case 8:
+                        searchStudentsByName();
+                        break;
+                    case 9:
                         managing = false;
                         break;
                     default:
@@ -200,30 +325,41 @@ public class MainCLI {
     private void listAllStudents() {
         System.out.println("\n=== ALL STUDENTS ===");
 
-        List<Student> students = studentService.getAllStudents();
+        // Fetched a page at a time in name order, rather than copying and sorting every student
+        Page<Student> first = studentService.getStudentsByName(null, PAGE_SIZE);
 
-        if (students.isEmpty()) {
+        if (first.isEmpty()) {
             System.out.println("No students found.");
             return;
         }
 
-        // Sort students by name using lambda comparator
-        students.sort(Comparators.STUDENT_BY_NAME);
-
         System.out.printf("%-10s %-15s %-20s %-30s %-10s%n",
                 "ID", "Reg No", "Name", "Email", "Status");
         System.out.println("--------------------------------------------------------------------------------");
 
-        for (Student student : students) {
-            System.out.printf("%-10s %-15s %-20s %-30s %-10s%n",
-                    student.getId(),
-                    student.getRegNo(),
-                    student.getFullName(),
-                    student.getEmail(),
-                    student.getStatus());
-        }
+        showPages(first, cursor -> studentService.getStudentsByName(cursor, PAGE_SIZE),
+                student -> System.out.printf("%-10s %-15s %-20s %-30s %-10s%n",
+                        student.getId(),
+                        student.getRegNo(),
+                        student.getFullName(),
+                        student.getEmail(),
+                        student.getStatus()));
 
-        System.out.println("Total students: " + students.size());
+        System.out.println("Total students: " + studentService.viewAllStudents().size());
+    }
+
+    // Prints each page's rows, asking before fetching the next page through its cursor
+    private <T> void showPages(Page<T> first, Function<String, Page<T>> next, Consumer<T> printRow) {
+        Page<T> page = first;
+        while (true) {
+            page.getItems().forEach(printRow);
+            if (!page.hasNext()) return;
+
+            System.out.print("-- Showing " + (page.getOffset() + page.getItems().size()) + " of " +
+                    page.getTotal() + ". Press Enter for more, or q to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) return;
+            page = next.apply(page.getNextCursor());
+        }
     }
 
     private void findStudentById() {
@@ -250,6 +386,39 @@ public class MainCLI {
         System.out.println("Enrolled Courses: " + student.getEnrolledCourses().size());
     }
 
+    private void searchStudentsByName() {
+        System.out.println("\n=== SEARCH STUDENTS BY NAME ===");
+
+        System.out.print("Enter part of a name: ");
+        String query = scanner.nextLine();
+
+        List<Student> results = studentService.findStudentsByName(query);
+        if (results.isEmpty()) {
+            // Fall back to close spellings
+            results = studentService.findStudentsBySimilarName(query, 10);
+            if (results.isEmpty()) {
+                System.out.println("No students found matching: " + query);
+                return;
+            }
+            System.out.println("No exact matches. Did you mean:");
+        }
+
+        System.out.printf("%-10s %-15s %-20s %-30s %-10s%n",
+                "ID", "Reg No", "Name", "Email", "Status");
+        System.out.println("--------------------------------------------------------------------------------");
+
+        for (Student student : results) {
+            System.out.printf("%-10s %-15s %-20s %-30s %-10s%n",
+                    student.getId(),
+                    student.getRegNo(),
+                    student.getFullName(),
+                    student.getEmail(),
+                    student.getStatus());
+        }
+
+        System.out.println("Students found: " + results.size());
+    }
+
     private void updateStudent() {
         System.out.println("\n=== UPDATE STUDENT ===");
 
@@ -272,6 +441,7 @@ public class MainCLI {
 
         System.out.println("\nEnter new details (leave blank to keep current value):");
 
+        String previousRegNo = student.getRegNo();
         System.out.print("Registration No [" + student.getRegNo() + "]: ");
         String regNo = scanner.nextLine();
         if (!regNo.isEmpty()) {
@@ -310,8 +480,13 @@ public class MainCLI {
             }
         }
 
-        studentService.updateStudent(student);
-        System.out.println("Student updated successfully!");
+        try {
+            studentService.updateStudent(student);
+            System.out.println("Student updated successfully!");
+        } catch (IllegalArgumentException e) {
+            student.setRegNo(previousRegNo);
+            System.out.println("Error updating student: " + e.getMessage());
+        }
     }
 
     private void deactivateStudent() {
@@ -344,7 +519,41 @@ public class MainCLI {
         System.out.print("Enter student ID: ");
         String id = scanner.nextLine();
 
-        studentService.printStudentTranscript(id);
+        // Printed from one point-in-time view, so the GPA and the course list agree
+        ReadView view = readModel.snapshot();
+        ReadView.StudentRow student = view.findStudent(id);
+        if (student == null) {
+            System.out.println("Student not found with ID: " + id);
+            return;
+        }
+
+        List<ReadView.EnrollmentRow> enrollments = new ArrayList<>();
+        double gradePoints = 0;
+        int gradedCredits = 0;
+        for (ReadView.EnrollmentRow enrollment : view.getEnrollmentsOf(id)) {
+            if (!enrollment.isActive()) continue;
+
+            enrollments.add(enrollment);
+            if (enrollment.getGrade() != null) {
+                int credits = view.getCourse(enrollment).getCredits();
+                gradePoints += enrollment.getGrade().getGradePoint() * credits;
+                gradedCredits += credits;
+            }
+        }
+
+        System.out.println("TRANSCRIPT FOR: " + student.getFullName());
+        System.out.println("REGISTRATION NO: " + student.getRegNo());
+        System.out.println("GPA: " + (gradedCredits > 0 ? gradePoints / gradedCredits : 0.0));
+        System.out.println("COURSES:");
+
+        for (ReadView.EnrollmentRow enrollment : enrollments) {
+            ReadView.CourseRow course = view.getCourse(enrollment);
+            System.out.printf("%-10s %-30s %-3s %-5s%n",
+                    course.getCode(),
+                    course.getTitle(),
+                    course.getCredits(),
+                    enrollment.getGrade() != null ? enrollment.getGrade() : "N/A");
+        }
     }
 
     private void manageCourses() {
@@ -432,6 +641,10 @@ public class MainCLI {
 
         Semester semester = Semester.values()[semesterIndex];
 
+        System.out.print("Enter seat capacity (0 for unlimited): ");
+        int capacity = scanner.nextInt();
+        scanner.nextLine(); // Consume newline
+
         try {
             CourseCode code = new CourseCode(prefix, number);
             Course course = new Course.Builder(code)
@@ -439,6 +652,7 @@ public class MainCLI {
                     .credits(credits)
                     .department(department)
                     .semester(semester)
+                    .capacity(capacity)
                     .build();
 
             courseService.addCourse(course);
@@ -451,31 +665,28 @@ public class MainCLI {
     private void listAllCourses() {
         System.out.println("\n=== ALL COURSES ===");
 
-        List<Course> courses = courseService.getAllCourses();
+        // Fetched a page at a time in code order, rather than copying and sorting every course
+        Page<Course> first = courseService.getCoursesByCode(null, PAGE_SIZE);
 
-        if (courses.isEmpty()) {
+        if (first.isEmpty()) {
             System.out.println("No courses found.");
             return;
         }
 
-        // Sort courses by code using lambda comparator
-        courses.sort(Comparators.COURSE_BY_CODE);
-
         System.out.printf("%-10s %-30s %-8s %-15s %-10s %-10s%n",
                 "Code", "Title", "Credits", "Department", "Semester", "Active");
         System.out.println("--------------------------------------------------------------------------------");
 
-        for (Course course : courses) {
-            System.out.printf("%-10s %-30s %-8d %-15s %-10s %-10s%n",
-                    course.getCode(),
-                    course.getTitle(),
-                    course.getCredits(),
-                    course.getDepartment(),
-                    course.getSemester(),
-                    course.isActive() ? "Yes" : "No");
-        }
+        showPages(first, cursor -> courseService.getCoursesByCode(cursor, PAGE_SIZE),
+                course -> System.out.printf("%-10s %-30s %-8d %-15s %-10s %-10s%n",
+                        course.getCode(),
+                        course.getTitle(),
+                        course.getCredits(),
+                        course.getDepartment(),
+                        course.getSemester(),
+                        course.isActive() ? "Yes" : "No"));
 
-        System.out.println("Total courses: " + courses.size());
+        System.out.println("Total courses: " + courseService.viewAllCourses().size());
     }
 
     private void findCourseByCode() {
@@ -499,6 +710,9 @@ public class MainCLI {
         System.out.println("Department: " + course.getDepartment());
         System.out.println("Semester: " + course.getSemester());
         System.out.println("Active: " + (course.isActive() ? "Yes" : "No"));
+        System.out.println("Seats: " + (course.hasCapacityLimit()
+                ? course.getReservedSeats() + "/" + course.getCapacity()
+                : course.getReservedSeats() + " (unlimited)"));
     }
 
     private void updateCourse() {
@@ -567,6 +781,16 @@ public class MainCLI {
             }
         }
 
+        System.out.print("Capacity [" + course.getCapacity() + "] (0 for unlimited): ");
+        String capacityStr = scanner.nextLine();
+        if (!capacityStr.isEmpty()) {
+            try {
+                course.setCapacity(Integer.parseInt(capacityStr));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Invalid capacity value. Keeping current value.");
+            }
+        }
+
         System.out.print("Active [" + (course.isActive() ? "Yes" : "No") + "] (true/false): ");
         String activeStr = scanner.nextLine();
         if (!activeStr.isEmpty()) {
@@ -604,7 +828,8 @@ public class MainCLI {
             System.out.println("\n=== SEARCH COURSES ===");
             System.out.println("1. By Department");
             System.out.println("2. By Semester");
-            System.out.println("3. Back to Course Management");
+            System.out.println("3. Advanced Search");
+            System.out.println("4. Back to Course Management");
             System.out.print("Enter your choice: ");
 
             try {
@@ -619,6 +844,9 @@ public class MainCLI {
                         searchCoursesBySemester();
                         break;
                     case 3:
+                        searchCoursesAdvanced();
+                        break;
+                    case 4:
                         searching = false;
                         break;
                     default:
@@ -702,6 +930,89 @@ public class MainCLI {
         System.out.println("Total courses found: " + courses.size());
     }
 
+    // Builds a CourseQuery from optional filters, so the course service can answer it from its indexes
+    private void searchCoursesAdvanced() {
+        System.out.println("\n=== ADVANCED COURSE SEARCH ===");
+        System.out.println("Leave a filter blank to skip it.");
+
+        List<CourseQuery> filters = new ArrayList<>();
+        try {
+            System.out.print("Departments (comma-separated): ");
+            String departments = scanner.nextLine().trim();
+            if (!departments.isEmpty()) {
+                CourseQuery anyDepartment = null;
+                for (String department : departments.split(",")) {
+                    if (department.trim().isEmpty()) continue;
+                    CourseQuery term = CourseQuery.department(department);
+                    anyDepartment = anyDepartment == null ? term : anyDepartment.or(term);
+                }
+                if (anyDepartment != null) filters.add(anyDepartment);
+            }
+
+            System.out.print("Semester (" + Arrays.toString(Semester.values()) + "): ");
+            String semester = scanner.nextLine().trim();
+            if (!semester.isEmpty()) {
+                filters.add(CourseQuery.semester(Semester.valueOf(semester.toUpperCase())));
+            }
+
+            System.out.print("Instructor ID: ");
+            String instructorId = scanner.nextLine().trim();
+            if (!instructorId.isEmpty()) filters.add(CourseQuery.instructor(instructorId));
+
+            System.out.print("Minimum credits: ");
+            String minCredits = scanner.nextLine().trim();
+            if (!minCredits.isEmpty()) {
+                filters.add(CourseQuery.credits(CourseQuery.Comparison.GE, Integer.parseInt(minCredits)));
+            }
+
+            System.out.print("Maximum credits: ");
+            String maxCredits = scanner.nextLine().trim();
+            if (!maxCredits.isEmpty()) {
+                filters.add(CourseQuery.credits(CourseQuery.Comparison.LE, Integer.parseInt(maxCredits)));
+            }
+
+            System.out.print("Title contains: ");
+            String title = scanner.nextLine().trim();
+            if (!title.isEmpty()) filters.add(CourseQuery.titleContains(title));
+
+            System.out.print("Active courses only? (y/n): ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("y")) filters.add(CourseQuery.active(true));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException and unknown semester names
+            System.out.println("Invalid filter: " + e.getMessage());
+            return;
+        }
+
+        if (filters.isEmpty()) {
+            System.out.println("No filters given. Use List All Courses to see every course.");
+            return;
+        }
+
+        CourseQuery query = CourseQuery.allOf(filters.toArray(new CourseQuery[0]));
+        List<Course> courses = courseService.searchCourses(query);
+
+        System.out.println("Query: " + query);
+        if (courses.isEmpty()) {
+            System.out.println("No courses match.");
+            return;
+        }
+
+        System.out.printf("%-10s %-30s %-8s %-15s %-10s%n",
+                "Code", "Title", "Credits", "Department", "Semester");
+        System.out.println("----------------------------------------------------------------");
+
+        for (Course course : courses) {
+            System.out.printf("%-10s %-30s %-8d %-15s %-10s%n",
+                    course.getCode(),
+                    course.getTitle(),
+                    course.getCredits(),
+                    course.getDepartment(),
+                    course.getSemester());
+        }
+
+        System.out.println("Total courses found: " + courses.size());
+    }
+
     private void manageEnrollments() {
         boolean managing = true;
 
@@ -712,7 +1023,8 @@ public class MainCLI {
             System.out.println("3. List All Enrollments");
             System.out.println("4. List Enrollments by Student");
             System.out.println("5. List Enrollments by Course");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("6. Show Course Waitlist");
+            System.out.println("7. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -736,6 +1048,9 @@ public class MainCLI {
                         listEnrollmentsByCourse();
                         break;
                     case 6:
+                        showCourseWaitlist();
+                        break;
+                    case 7:
                         managing = false;
                         break;
                     default:
@@ -777,6 +1092,8 @@ public class MainCLI {
             System.out.println("Enrollment failed: " + e.getMessage());
         } catch (DuplicateEnrollmentException e) {
             System.out.println("Enrollment failed: " + e.getMessage());
+        } catch (CourseFullException e) {
+            System.out.println("Enrollment failed: " + e.getMessage());
         }
     }
 
@@ -798,9 +1115,9 @@ public class MainCLI {
     private void listAllEnrollments() {
         System.out.println("\n=== ALL ENROLLMENTS ===");
 
-        List<Enrollment> enrollments = enrollmentService.getAllEnrollments();
+        Page<Enrollment> first = enrollmentService.getEnrollments(0, PAGE_SIZE);
 
-        if (enrollments.isEmpty()) {
+        if (first.isEmpty()) {
             System.out.println("No enrollments found.");
             return;
         }
@@ -809,16 +1126,15 @@ public class MainCLI {
                 "Enrollment ID", "Student", "Course", "Grade", "Active");
         System.out.println("-------------------------------------------------------------------------");
 
-        for (Enrollment enrollment : enrollments) {
-            System.out.printf("%-36s %-15s %-10s %-15s %-10s%n",
-                    enrollment.getId(),
-                    enrollment.getStudent().getFullName(),
-                    enrollment.getCourse().getCode(),
-                    enrollment.getGrade() != null ? enrollment.getGrade() : "Not graded",
-                    enrollment.isActive() ? "Yes" : "No");
-        }
+        showPages(first, cursor -> enrollmentService.getEnrollmentsAfter(cursor, PAGE_SIZE),
+                enrollment -> System.out.printf("%-36s %-15s %-10s %-15s %-10s%n",
+                        enrollment.getId(),
+                        enrollment.getStudent().getFullName(),
+                        enrollment.getCourse().getCode(),
+                        enrollment.getGrade() != null ? enrollment.getGrade() : "Not graded",
+                        enrollment.isActive() ? "Yes" : "No"));
 
-        System.out.println("Total enrollments: " + enrollments.size());
+        System.out.println("Total enrollments: " + enrollmentService.viewAllEnrollments().size());
     }
 
     private void listEnrollmentsByStudent() {
@@ -877,6 +1193,42 @@ public class MainCLI {
         System.out.println("Total enrollments: " + enrollments.size());
     }
 
+    private void showCourseWaitlist() {
+        System.out.println("\n=== COURSE WAITLIST ===");
+
+        System.out.print("Enter course code: ");
+        String courseCode = scanner.nextLine();
+
+        List<Student> waitlist = enrollmentService.getWaitlist(courseCode);
+        List<BatchResult.Outcome<Student>> skipped = enrollmentService.getSkippedWaitlist(courseCode);
+
+        if (waitlist.isEmpty()) {
+            System.out.println("No students waitlisted for course code: " + courseCode);
+        } else {
+            System.out.printf("%-10s %-10s %-15s %-20s%n",
+                    "Position", "ID", "Reg No", "Name");
+            System.out.println("-----------------------------------------------------");
+
+            int position = 1;
+            for (Student student : waitlist) {
+                System.out.printf("%-10d %-10s %-15s %-20s%n",
+                        position++,
+                        student.getId(),
+                        student.getRegNo(),
+                        student.getFullName());
+            }
+
+            System.out.println("Total waitlisted: " + waitlist.size());
+        }
+
+        if (!skipped.isEmpty()) {
+            System.out.println("Skipped at promotion:");
+            for (BatchResult.Outcome<Student> outcome : skipped) {
+                System.out.println("  " + outcome.getItem().getId() + ": " + outcome.getMessage());
+            }
+        }
+    }
+
     private void manageGrades() {
         boolean managing = true;
 
@@ -957,10 +1309,12 @@ public class MainCLI {
             System.out.println("\n=== IMPORT/EXPORT DATA ===");
             System.out.println("1. Import Students from CSV");
             System.out.println("2. Import Courses from CSV");
-            System.out.println("3. Export Students to CSV");
-            System.out.println("4. Export Courses to CSV");
-            System.out.println("5. Export All Data");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("3. Import Enrollments from CSV");
+            System.out.println("4. Import All Data");
+            System.out.println("5. Export Students to CSV");
+            System.out.println("6. Export Courses to CSV");
+            System.out.println("7. Export All Data");
+            System.out.println("8. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -975,15 +1329,21 @@ public class MainCLI {
                         importCoursesFromCSV();
                         break;
                     case 3:
-                        exportStudentsToCSV();
+                        importEnrollmentsFromCSV();
                         break;
                     case 4:
-                        exportCoursesToCSV();
+                        importAllData();
                         break;
                     case 5:
-                        exportAllData();
+                        exportStudentsToCSV();
                         break;
                     case 6:
+                        exportCoursesToCSV();
+                        break;
+                    case 7:
+                        exportAllData();
+                        break;
+                    case 8:
                         managing = false;
                         break;
                     default:
@@ -1007,9 +1367,16 @@ public class MainCLI {
         }
 
         Path path = Paths.get(filePath);
+        int workers = readWorkerCount("import");
 
         try {
-            importExportService.importStudentsFromCSV(path);
+            runJournaled(() -> {
+                if (workers > 1) {
+                    importExportService.importStudentsFromCSV(path, workers);
+                } else {
+                    importExportService.importStudentsFromCSV(path);
+                }
+            });
         } catch (IOException e) {
             System.out.println("Error importing students: " + e.getMessage());
         }
@@ -1026,14 +1393,79 @@ public class MainCLI {
         }
 
         Path path = Paths.get(filePath);
+        int workers = readWorkerCount("import");
 
         try {
-            importExportService.importCoursesFromCSV(path);
+            runJournaled(() -> {
+                if (workers > 1) {
+                    importExportService.importCoursesFromCSV(path, workers);
+                } else {
+                    importExportService.importCoursesFromCSV(path);
+                }
+            });
         } catch (IOException e) {
             System.out.println("Error importing courses: " + e.getMessage());
         }
     }
 
+    private void importEnrollmentsFromCSV() {
+        System.out.println("\n=== IMPORT ENROLLMENTS FROM CSV ===");
+
+        System.out.print("Enter CSV file path (or press Enter for default 'data/enrollments.csv'): ");
+        String filePath = scanner.nextLine();
+
+        if (filePath.isEmpty()) {
+            filePath = "data/enrollments.csv";
+        }
+
+        Path path = Paths.get(filePath);
+        int workers = readWorkerCount("import");
+
+        try {
+            runJournaled(() -> {
+                if (workers > 1) {
+                    importExportService.importEnrollmentsFromCSV(path, workers);
+                } else {
+                    importExportService.importEnrollmentsFromCSV(path);
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("Error importing enrollments: " + e.getMessage());
+        }
+    }
+
+    private void importAllData() {
+        System.out.println("\n=== IMPORT ALL DATA ===");
+
+        System.out.print("Enter directory path (or press Enter for default 'data'): ");
+        String dirPath = scanner.nextLine();
+
+        if (dirPath.isEmpty()) {
+            dirPath = "data";
+        }
+
+        Path path = Paths.get(dirPath);
+
+        try {
+            runJournaled(() -> importExportService.importAllData(path));
+        } catch (IOException e) {
+            System.out.println("Error importing data: " + e.getMessage());
+        }
+    }
+
+    private int readWorkerCount(String operation) {
+        System.out.print("Enter number of worker threads (or press Enter for a sequential " + operation + "): ");
+        String input = scanner.nextLine();
+
+        if (input.isEmpty()) return 1;
+        try {
+            return Math.max(1, Integer.parseInt(input));
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number. Using a sequential " + operation + ".");
+            return 1;
+        }
+    }
+
     private void exportStudentsToCSV() {
         System.out.println("\n=== EXPORT STUDENTS TO CSV ===");
 
@@ -1083,9 +1515,14 @@ public class MainCLI {
         }
 
         Path path = Paths.get(dirPath);
+        int workers = readWorkerCount("export");
 
         try {
-            importExportService.exportAllData(path);
+            if (workers > 1) {
+                importExportService.exportAllData(path, workers);
+            } else {
+                importExportService.exportAllData(path);
+            }
         } catch (IOException e) {
             System.out.println("Error exporting data: " + e.getMessage());
         }
@@ -1096,10 +1533,14 @@ public class MainCLI {
 
         while (managing) {
             System.out.println("\n=== BACKUP & RESTORE ===");
-            System.out.println("1. Create Backup");
-            System.out.println("2. Show Backup Size");
-            System.out.println("3. List Backup Contents");
-            System.out.println("4. Back to Main Menu");
+            System.out.println("1. Create Full Backup");
+            System.out.println("2. Create Incremental Backup");
+            System.out.println("3. Restore Latest Backup");
+            System.out.println("4. Show Backup Size");
+            System.out.println("5. List Backup Contents");
+            System.out.println("6. Backup Compression Settings");
+            System.out.println("7. Prune Old Backups");
+            System.out.println("8. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -1111,12 +1552,24 @@ public class MainCLI {
                         createBackup();
                         break;
                     case 2:
-                        showBackupSize();
+                        createIncrementalBackup();
                         break;
                     case 3:
-                        listBackupContents();
+                        restoreLatestBackup();
                         break;
                     case 4:
+                        showBackupSize();
+                        break;
+                    case 5:
+                        listBackupContents();
+                        break;
+                    case 6:
+                        configureBackupCompression();
+                        break;
+                    case 7:
+                        pruneBackups();
+                        break;
+                    case 8:
                         managing = false;
                         break;
                     default:
@@ -1140,6 +1593,77 @@ public class MainCLI {
         }
     }
 
+    private void createIncrementalBackup() {
+        System.out.println("\n=== CREATE INCREMENTAL BACKUP ===");
+
+        try {
+            Path deltaDir = backupService.createIncrementalBackup();
+            System.out.println("Backup created successfully at: " + deltaDir);
+        } catch (IOException e) {
+            System.out.println("Error creating backup: " + e.getMessage());
+        }
+    }
+
+    private void restoreLatestBackup() {
+        System.out.println("\n=== RESTORE LATEST BACKUP ===");
+
+        try {
+            List<String> chain = backupService.getLatestChain();
+            if (chain.isEmpty()) {
+                System.out.println("No backups found.");
+                return;
+            }
+            System.out.println("Backup chain: " + String.join(" -> ", chain));
+            System.out.println("Records that already exist will be skipped.");
+            System.out.print("Restore now? (y/n): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) return;
+
+            runJournaled(backupService::restoreLatestBackup);
+        } catch (IOException e) {
+            System.out.println("Error restoring backup: " + e.getMessage());
+        }
+    }
+
+    private void configureBackupCompression() {
+        System.out.println("\n=== BACKUP COMPRESSION SETTINGS ===");
+        System.out.println("Current: " + (config.isCompressBackups()
+                ? "zip archive, level " + config.getBackupCompressionLevel() : "uncompressed directory"));
+
+        System.out.print("Enter compression level 0-9, -1 for default, or 'none' for uncompressed directories: ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) return;
+
+        if (input.equalsIgnoreCase("none")) {
+            config.setCompressBackups(false);
+            System.out.println("Backups will be written as uncompressed directories.");
+            return;
+        }
+
+        try {
+            config.setBackupCompressionLevel(Integer.parseInt(input));
+            config.setCompressBackups(true);
+            System.out.println("Backups will be written as zip archives at level " + config.getBackupCompressionLevel() + ".");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid compression level: " + input);
+        }
+    }
+
+    private void pruneBackups() {
+        System.out.println("\n=== PRUNE OLD BACKUPS ===");
+        System.out.println("Retention policy: keep " + backupService.getRetentionPolicy());
+
+        try {
+            List<String> pruned = backupService.pruneBackups();
+            if (pruned.isEmpty()) {
+                System.out.println("No backups to prune.");
+            } else {
+                System.out.println("Pruned " + pruned.size() + " backup(s): " + String.join(", ", pruned));
+            }
+        } catch (IOException e) {
+            System.out.println("Error pruning backups: " + e.getMessage());
+        }
+    }
+
     private void showBackupSize() {
         System.out.println("\n=== SHOW BACKUP SIZE ===");
 
@@ -1196,7 +1720,8 @@ public class MainCLI {
             System.out.println("\n=== GENERATE REPORTS ===");
             System.out.println("1. GPA Distribution");
             System.out.println("2. Top Students");
-            System.out.println("3. Back to Main Menu");
+            System.out.println("3. Student Rank");
+            System.out.println("4. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -1211,6 +1736,9 @@ public class MainCLI {
                         showTopStudents();
                         break;
                     case 3:
+                        showStudentRank();
+                        break;
+                    case 4:
                         managing = false;
                         break;
                     default:
@@ -1226,28 +1754,48 @@ public class MainCLI {
     private void showGPADistribution() {
         System.out.println("\n=== GPA DISTRIBUTION ===");
 
-        // Calculate GPA distribution using Stream API
-        Map<String, Long> gradeCounts = enrollmentService.getAllEnrollments().stream()
-                .filter(e -> e.getGrade() != null && e.isActive())
-                .collect(Collectors.groupingBy(
-                        e -> e.getGrade().getLetter(),
-                        Collectors.counting()
-                ));
+        System.out.println("Scope: 1. All  2. Course  3. Department  4. Semester  5. Instructor");
+        System.out.print("Select scope: ");
+        String scope = scanner.nextLine();
+
+        // Read from the maintained histograms rather than counting every enrollment
+        GradeDistribution distribution;
+        if (scope.equals("2")) {
+            System.out.print("Enter course code: ");
+            String code = scanner.nextLine().trim();
+            Course course = code.isEmpty() ? null : courseService.getCourse(code);
+            if (course == null) {
+                System.out.println("Course not found: " + code);
+                return;
+            }
+            distribution = gradeAnalytics.getCourseDistribution(course.getCode());
+        } else if (scope.equals("3")) {
+            System.out.print("Enter department name: ");
+            distribution = gradeAnalytics.getDepartmentDistribution(scanner.nextLine().trim());
+        } else if (scope.equals("4")) {
+            Semester semester = selectSemester();
+            if (semester == null) return;
+            distribution = gradeAnalytics.getSemesterDistribution(semester);
+        } else if (scope.equals("5")) {
+            System.out.print("Enter instructor ID: ");
+            distribution = gradeAnalytics.getInstructorDistribution(scanner.nextLine().trim());
+        } else {
+            distribution = gradeAnalytics.getDistribution();
+        }
 
-        if (gradeCounts.isEmpty()) {
+        if (distribution.isEmpty()) {
             System.out.println("No graded enrollments found.");
             return;
         }
 
-        long totalGradedEnrollments = gradeCounts.values().stream().mapToLong(Long::longValue).sum();
-
         System.out.println("Grade Distribution:");
         System.out.println("------------------");
 
-        for (Map.Entry<String, Long> entry : gradeCounts.entrySet()) {
-            double percentage = (entry.getValue() * 100.0) / totalGradedEnrollments;
-            System.out.printf("%s: %.2f%%%n", entry.getKey(), percentage);
+        for (Grade grade : Grade.values()) {
+            if (distribution.getCount(grade) == 0) continue;
+            System.out.printf("%s: %.2f%%%n", grade.getLetter(), distribution.getPercentage(grade));
         }
+        System.out.println("Graded enrollments: " + distribution.getTotal());
     }
 
     private void showTopStudents() {
@@ -1270,12 +1818,22 @@ public class MainCLI {
             return;
         }
 
-        // Get top students using Stream API
-        List<Student> topStudents = studentService.getAllStudents().stream()
-                .filter(s -> !s.getEnrolledCourses().isEmpty())
-                .sorted((s1, s2) -> Double.compare(s2.calculateGPA(), s1.calculateGPA()))
-                .limit(limit)
-                .collect(Collectors.toList());
+        System.out.println("Filter: 1. All students  2. By department  3. By semester");
+        System.out.print("Select filter: ");
+        String filter = scanner.nextLine();
+
+        // Read the live ranking instead of re-sorting every student
+        List<GpaLeaderboard.Standing> topStudents;
+        if (filter.equals("2")) {
+            System.out.print("Enter department name: ");
+            topStudents = leaderboard.getTopStudents(scanner.nextLine(), limit);
+        } else if (filter.equals("3")) {
+            Semester semester = selectSemester();
+            if (semester == null) return;
+            topStudents = leaderboard.getTopStudents(semester, limit);
+        } else {
+            topStudents = leaderboard.getTopStudents(limit);
+        }
 
         if (topStudents.isEmpty()) {
             System.out.println("No students found.");
@@ -1286,14 +1844,56 @@ public class MainCLI {
                 "Rank", "Reg No", "Name", "GPA");
         System.out.println("------------------------------------------------");
 
-        int rank = 1;
-        for (Student student : topStudents) {
+        for (GpaLeaderboard.Standing standing : topStudents) {
             System.out.printf("%-5d %-15s %-20s %-10.2f%n",
-                    rank++,
-                    student.getRegNo(),
-                    student.getFullName(),
-                    student.calculateGPA());
+                    standing.getRank(),
+                    standing.getStudent().getRegNo(),
+                    standing.getStudent().getFullName(),
+                    standing.getGpa());
+        }
+    }
+
+    private void showStudentRank() {
+        System.out.println("\n=== STUDENT RANK ===");
+
+        System.out.print("Enter student ID: ");
+        String studentId = scanner.nextLine();
+
+        Student student = studentService.getStudent(studentId);
+        if (student == null) {
+            System.out.println("Student not found with ID: " + studentId);
+            return;
+        }
+
+        int rank = leaderboard.getRank(studentId);
+        if (rank == 0) {
+            System.out.println("Student is not ranked (no enrollments).");
+            return;
         }
+
+        System.out.printf("%s is ranked %d of %d with GPA %.2f%n",
+                student.getFullName(), rank, leaderboard.getRankedCount(), student.calculateGPA());
+    }
+
+    private Semester selectSemester() {
+        System.out.println("Available semesters:");
+        for (Semester semester : Semester.values()) {
+            System.out.println(semester.ordinal() + 1 + ". " + semester);
+        }
+
+        System.out.print("Select semester: ");
+        String input = scanner.nextLine();
+        try {
+            int semesterIndex = Integer.parseInt(input) - 1;
+            if (semesterIndex >= 0 && semesterIndex < Semester.values().length) {
+                return Semester.values()[semesterIndex];
+            }
+        } catch (NumberFormatException e) {
+            // fall through
+        }
+
+        System.out.println("Invalid semester selection.");
+        return null;
     }
 
     public static void main(String[] args) {
@@ -2,19 +2,38 @@ package edu.ccrm.config;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.zip.Deflater;
 
 public class AppConfig {
     private static AppConfig instance;
     private Path dataFolderPath;
     private Path backupFolderPath;
+    private Path snapshotFilePath;
+    private Path journalFilePath;
+    private int snapshotIntervalMinutes;
+    private int snapshotRetentionCount;
     private int maxCreditsPerSemester;
+    private boolean compressBackups;
+    private int backupCompressionLevel;
+    private int backupRetainLast;
+    private int backupRetainDaily;
+    private int backupRetainWeekly;
 
     // Private constructor to prevent instantiation
     private AppConfig() {
         // Default configuration
         this.dataFolderPath = Paths.get("data");
         this.backupFolderPath = Paths.get("backup");
+        this.snapshotFilePath = dataFolderPath.resolve("ccrm.snapshot");
+        this.journalFilePath = dataFolderPath.resolve("ccrm.journal");
+        this.snapshotIntervalMinutes = 15;
+        this.snapshotRetentionCount = 3;
         this.maxCreditsPerSemester = 21;
+        this.compressBackups = true;
+        this.backupCompressionLevel = Deflater.DEFAULT_COMPRESSION;
+        this.backupRetainLast = 5;
+        this.backupRetainDaily = 7;
+        this.backupRetainWeekly = 4;
     }
 
     // Static method to get the singleton instance
@@ -30,8 +49,48 @@ public class AppConfig {
     public void setDataFolderPath(Path dataFolderPath) { this.dataFolderPath = dataFolderPath; }
     public Path getBackupFolderPath() { return backupFolderPath; }
     public void setBackupFolderPath(Path backupFolderPath) { this.backupFolderPath = backupFolderPath; }
+    public Path getSnapshotFilePath() { return snapshotFilePath; }
+    public void setSnapshotFilePath(Path snapshotFilePath) { this.snapshotFilePath = snapshotFilePath; }
+    public Path getJournalFilePath() { return journalFilePath; }
+    public void setJournalFilePath(Path journalFilePath) { this.journalFilePath = journalFilePath; }
+    public int getSnapshotIntervalMinutes() { return snapshotIntervalMinutes; }
+    public void setSnapshotIntervalMinutes(int snapshotIntervalMinutes) {
+        // 0 turns background snapshots off
+        if (snapshotIntervalMinutes < 0) throw new IllegalArgumentException("Snapshot interval cannot be negative");
+        this.snapshotIntervalMinutes = snapshotIntervalMinutes;
+    }
+    public int getSnapshotRetentionCount() { return snapshotRetentionCount; }
+    public void setSnapshotRetentionCount(int snapshotRetentionCount) {
+        if (snapshotRetentionCount < 1) throw new IllegalArgumentException("At least one snapshot must be retained");
+        this.snapshotRetentionCount = snapshotRetentionCount;
+    }
     public int getMaxCreditsPerSemester() { return maxCreditsPerSemester; }
     public void setMaxCreditsPerSemester(int maxCreditsPerSemester) { this.maxCreditsPerSemester = maxCreditsPerSemester; }
+    public boolean isCompressBackups() { return compressBackups; }
+    public void setCompressBackups(boolean compressBackups) { this.compressBackups = compressBackups; }
+    public int getBackupCompressionLevel() { return backupCompressionLevel; }
+    public void setBackupCompressionLevel(int backupCompressionLevel) {
+        // 0 (store only) to 9 (smallest), or -1 for the deflater default
+        if (backupCompressionLevel < Deflater.DEFAULT_COMPRESSION || backupCompressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9");
+        }
+        this.backupCompressionLevel = backupCompressionLevel;
+    }
+    public int getBackupRetainLast() { return backupRetainLast; }
+    public void setBackupRetainLast(int backupRetainLast) {
+        if (backupRetainLast < 1) throw new IllegalArgumentException("At least one backup must be retained");
+        this.backupRetainLast = backupRetainLast;
+    }
+    public int getBackupRetainDaily() { return backupRetainDaily; }
+    public void setBackupRetainDaily(int backupRetainDaily) {
+        if (backupRetainDaily < 0) throw new IllegalArgumentException("Daily retention cannot be negative");
+        this.backupRetainDaily = backupRetainDaily;
+    }
+    public int getBackupRetainWeekly() { return backupRetainWeekly; }
+    public void setBackupRetainWeekly(int backupRetainWeekly) {
+        if (backupRetainWeekly < 0) throw new IllegalArgumentException("Weekly retention cannot be negative");
+        this.backupRetainWeekly = backupRetainWeekly;
+    }
 
     // Method to load configuration
     public void loadConfig() {
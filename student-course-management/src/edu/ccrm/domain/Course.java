@@ -1,6 +1,8 @@
 package edu.ccrm.domain;
 
+import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Course {
     private final CourseCode code;
@@ -10,6 +12,10 @@ public class Course {
     private Semester semester;
     private String department;
     private boolean active;
+    private volatile int capacity;
+    private final AtomicInteger reservedSeats = new AtomicInteger();
+    // Last time a persisted field changed, used by incremental backups
+    private volatile LocalDateTime updatedAt;
 
     private Course(Builder builder) {
         this.code = builder.code;
@@ -19,33 +25,87 @@ public class Course {
         this.semester = builder.semester;
         this.department = builder.department;
         this.active = builder.active;
+        this.capacity = builder.capacity;
+        this.updatedAt = LocalDateTime.now();
     }
 
     // Getters and setters
     public CourseCode getCode() { return code; }
     public String getTitle() { return title; }
-    public void setTitle(String title) { this.title = title; }
+    public void setTitle(String title) {
+        this.title = title;
+        touch();
+    }
     public int getCredits() { return credits; }
-    public void setCredits(int credits) { this.credits = credits; }
+    public void setCredits(int credits) {
+        this.credits = credits;
+        touch();
+    }
     public Instructor getInstructor() { return instructor; }
     public void setInstructor(Instructor instructor) {
         this.instructor = instructor;
         if (instructor != null) {
             instructor.assignCourse(this);
         }
+        touch();
     }
     public Semester getSemester() { return semester; }
-    public void setSemester(Semester semester) { this.semester = semester; }
+    public void setSemester(Semester semester) {
+        this.semester = semester;
+        touch();
+    }
     public String getDepartment() { return department; }
-    public void setDepartment(String department) { this.department = department; }
+    public void setDepartment(String department) {
+        this.department = department;
+        touch();
+    }
     public boolean isActive() { return active; }
-    public void setActive(boolean active) { this.active = active; }
+    public void setActive(boolean active) {
+        this.active = active;
+        touch();
+    }
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative");
+        this.capacity = capacity;
+        touch();
+    }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    // Used when restoring a course saved earlier; call after the other setters, which touch it
+    public void restoreUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    private void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    public int getReservedSeats() { return reservedSeats.get(); }
+    public boolean hasCapacityLimit() { return capacity > 0; }
+    public int getAvailableSeats() {
+        int limit = capacity;
+        return limit > 0 ? Math.max(0, limit - reservedSeats.get()) : Integer.MAX_VALUE;
+    }
+
+    // Seat reservation (a capacity of 0 means unlimited seats)
+    public boolean tryReserveSeat() {
+        while (true) {
+            int reserved = reservedSeats.get();
+            int limit = capacity;
+            if (limit > 0 && reserved >= limit) return false;
+            if (reservedSeats.compareAndSet(reserved, reserved + 1)) return true;
+        }
+    }
+
+    public void releaseSeat() {
+        reservedSeats.updateAndGet(reserved -> reserved > 0 ? reserved - 1 : 0);
+    }
 
     @Override
     public String toString() {
         return "Course{code=" + code + ", title='" + title +
                 "', credits=" + credits + ", department='" + department +
                 "', semester=" + semester + ", active=" + active +
+                ", capacity=" + (capacity > 0 ? reservedSeats.get() + "/" + capacity : "unlimited") +
                 ", instructor=" + (instructor != null ? instructor.getFullName() : "None") + "}";
     }
 
@@ -58,6 +118,7 @@ public class Course {
         private Semester semester;
         private String department;
         private boolean active = true;
+        private int capacity;
 
         public Builder(CourseCode code) {
             this.code = Objects.requireNonNull(code, "Course code cannot be null");
@@ -93,9 +154,15 @@ public class Course {
             return this;
         }
 
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
         public Course build() {
             Objects.requireNonNull(title, "Course title cannot be null");
             if (credits <= 0) throw new IllegalArgumentException("Credits must be positive");
+            if (capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative");
             Objects.requireNonNull(department, "Department cannot be null");
             Objects.requireNonNull(semester, "Semester cannot be null");
 
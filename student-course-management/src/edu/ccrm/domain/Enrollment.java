@@ -7,15 +7,31 @@ public class Enrollment {
     private final Student student;
     private final Course course;
     private final LocalDateTime enrollmentDate;
-    private Grade grade;
-    private boolean active;
+    // What the enrollment counts against the semester credit cap, fixed when it is created
+    // so that a later edit to the course cannot unbalance the count
+    private final Semester chargedSemester;
+    private final int chargedCredits;
+    // Credits the student's GPA totals currently weight the grade by; guarded by the student
+    int gradedCredits;
+    private volatile Grade grade;
+    private volatile boolean active;
+    // Last time the grade or active flag changed, used by incremental backups
+    private volatile LocalDateTime updatedAt;
 
     public Enrollment(String id, Student student, Course course) {
+        this(id, student, course, LocalDateTime.now());
+    }
+
+    // Used when restoring an enrollment that was created earlier
+    public Enrollment(String id, Student student, Course course, LocalDateTime enrollmentDate) {
         this.id = id;
         this.student = student;
         this.course = course;
-        this.enrollmentDate = LocalDateTime.now();
+        this.enrollmentDate = enrollmentDate;
+        this.chargedSemester = course.getSemester();
+        this.chargedCredits = course.getCredits();
         this.active = true;
+        this.updatedAt = LocalDateTime.now();
     }
 
     // Getters and setters
@@ -23,10 +39,27 @@ public class Enrollment {
     public Student getStudent() { return student; }
     public Course getCourse() { return course; }
     public LocalDateTime getEnrollmentDate() { return enrollmentDate; }
+    public Semester getChargedSemester() { return chargedSemester; }
+    public int getChargedCredits() { return chargedCredits; }
     public Grade getGrade() { return grade; }
-    public void setGrade(Grade grade) { this.grade = grade; }
+    public void setGrade(Grade grade) {
+        Grade previous = this.grade;
+        this.grade = grade;
+        if (previous != grade) {
+            this.updatedAt = LocalDateTime.now();
+            student.onGradeChanged(this, previous, grade);
+        }
+    }
     public boolean isActive() { return active; }
-    public void setActive(boolean active) { this.active = active; }
+    public void setActive(boolean active) {
+        this.active = active;
+        this.updatedAt = LocalDateTime.now();
+    }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    // Used when restoring an enrollment saved earlier; call after setGrade and setActive
+    public void restoreUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 
     @Override
     public String toString() {
@@ -6,8 +6,8 @@ public abstract class Person {
     private final String id;
     private final Name fullName;
     private String email;
-    private final LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
+    private LocalDateTime createdAt;
+    private volatile LocalDateTime updatedAt;
     private boolean active;
 
     public Person(String id, Name fullName, String email) {
@@ -39,6 +39,17 @@ public abstract class Person {
         this.updatedAt = LocalDateTime.now();
     }
 
+    // Used when restoring a person saved earlier; call after the other setters, which touch updatedAt
+    public void restoreTimestamps(LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // For subclasses whose own setters change persisted fields
+    protected void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     @Override
     public String toString() {
         return "Person{id='" + id + "', fullName=" + fullName +
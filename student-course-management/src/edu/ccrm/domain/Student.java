@@ -3,16 +3,20 @@ package edu.ccrm.domain;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Student extends Person {
     private String regNo;
     private List<Enrollment> enrolledCourses;
     private StudentStatus status;
+    // Running totals over graded enrollments, kept current so calculateGPA is O(1)
+    private double totalGradePoints;
+    private int totalGradedCredits;
 
     public Student(String id, Name fullName, String email, String regNo) {
         super(id, fullName, email);
         this.regNo = regNo;
-        this.enrolledCourses = new ArrayList<>();
+        this.enrolledCourses = new CopyOnWriteArrayList<>();
         this.status = StudentStatus.ACTIVE;
     }
 
@@ -29,36 +33,63 @@ public class Student extends Person {
 
     // Getters and setters
     public String getRegNo() { return regNo; }
-    public void setRegNo(String regNo) { this.regNo = regNo; }
+    public void setRegNo(String regNo) {
+        this.regNo = regNo;
+        touch();
+    }
     public List<Enrollment> getEnrolledCourses() { return new ArrayList<>(enrolledCourses); }
     public StudentStatus getStatus() { return status; }
-    public void setStatus(StudentStatus status) { this.status = status; }
+    public void setStatus(StudentStatus status) {
+        this.status = status;
+        touch();
+    }
 
     // Business methods
-    public void addEnrollment(Enrollment enrollment) {
+    public synchronized void addEnrollment(Enrollment enrollment) {
         if (!enrolledCourses.contains(enrollment)) {
             enrolledCourses.add(enrollment);
+            applyGrade(enrollment, null, enrollment.getGrade());
         }
     }
 
-    public void removeEnrollment(Enrollment enrollment) {
-        enrolledCourses.remove(enrollment);
+    public synchronized void removeEnrollment(Enrollment enrollment) {
+        if (enrolledCourses.remove(enrollment)) {
+            applyGrade(enrollment, enrollment.getGrade(), null);
+        }
     }
 
-    public double calculateGPA() {
-        if (enrolledCourses.isEmpty()) return 0.0;
+    // Called by Enrollment when its grade changes
+    synchronized void onGradeChanged(Enrollment enrollment, Grade previous, Grade current) {
+        if (enrolledCourses.contains(enrollment)) {
+            applyGrade(enrollment, previous, current);
+        }
+    }
 
-        double totalGradePoints = 0;
-        int totalCredits = 0;
+    // Weights the enrollment's grade by its course's current credits, after a course edit
+    public synchronized void reweightGrade(Enrollment enrollment) {
+        if (enrolledCourses.contains(enrollment) && enrollment.getGrade() != null) {
+            applyGrade(enrollment, enrollment.getGrade(), enrollment.getGrade());
+        }
+    }
 
-        for (Enrollment enrollment : enrolledCourses) {
-            if (enrollment.getGrade() != null) {
-                totalGradePoints += enrollment.getGrade().getGradePoint() * enrollment.getCourse().getCredits();
-                totalCredits += enrollment.getCourse().getCredits();
-            }
+    // Takes back the weight the previous grade was added with, so an edit to the course's
+    // credits in between cannot leave the totals off
+    private void applyGrade(Enrollment enrollment, Grade previous, Grade current) {
+        if (previous != null) {
+            totalGradePoints -= previous.getGradePoint() * enrollment.gradedCredits;
+            totalGradedCredits -= enrollment.gradedCredits;
+            enrollment.gradedCredits = 0;
         }
+        if (current != null) {
+            int credits = enrollment.getCourse().getCredits();
+            totalGradePoints += current.getGradePoint() * credits;
+            totalGradedCredits += credits;
+            enrollment.gradedCredits = credits;
+        }
+    }
 
-        return totalCredits > 0 ? totalGradePoints / totalCredits : 0.0;
+    public synchronized double calculateGPA() {
+        return totalGradedCredits > 0 ? totalGradePoints / totalGradedCredits : 0.0;
     }
 
     @Override
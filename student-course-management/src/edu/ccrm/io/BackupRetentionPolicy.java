@@ -0,0 +1,68 @@
+package edu.ccrm.io;
+
+import java.time.LocalDateTime;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Decides which backups to keep: the newest keepLast, plus the newest backup of each of
+ * the last keepDaily days and keepWeekly ISO weeks that have a backup. Anything else may
+ * be pruned.
+ */
+public class BackupRetentionPolicy {
+    private final int keepLast;
+    private final int keepDaily;
+    private final int keepWeekly;
+
+    public BackupRetentionPolicy(int keepLast, int keepDaily, int keepWeekly) {
+        if (keepLast < 1) throw new IllegalArgumentException("At least one backup must be kept");
+        if (keepDaily < 0 || keepWeekly < 0) {
+            throw new IllegalArgumentException("Daily and weekly counts cannot be negative");
+        }
+        this.keepLast = keepLast;
+        this.keepDaily = keepDaily;
+        this.keepWeekly = keepWeekly;
+    }
+
+    public <T> Set<T> selectRetained(Collection<T> backups, Function<T, LocalDateTime> capturedAt) {
+        List<T> newestFirst = new ArrayList<>(backups);
+        newestFirst.sort(Comparator.comparing(capturedAt).reversed());
+
+        Set<T> retained = new HashSet<>();
+        retained.addAll(newestFirst.subList(0, Math.min(keepLast, newestFirst.size())));
+        keepNewestPerPeriod(newestFirst, capturedAt, LocalDateTime::toLocalDate, keepDaily, retained);
+        keepNewestPerPeriod(newestFirst, capturedAt, time -> time.get(WeekFields.ISO.weekBasedYear()) * 100
+                + time.get(WeekFields.ISO.weekOfWeekBasedYear()), keepWeekly, retained);
+        return retained;
+    }
+
+    @Override
+    public String toString() {
+        return "last " + keepLast + ", daily " + keepDaily + ", weekly " + keepWeekly;
+    }
+
+    // The list is newest first, so the first backup seen in each period is its newest
+    private static <T> void keepNewestPerPeriod(List<T> newestFirst, Function<T, LocalDateTime> capturedAt,
+                                                Function<LocalDateTime, Object> periodOf, int periods,
+                                                Set<T> retained) {
+        Object lastPeriod = null;
+        int kept = 0;
+        for (T backup : newestFirst) {
+            if (kept == periods) break;
+
+            Object period = periodOf.apply(capturedAt.apply(backup));
+            if (!Objects.equals(period, lastPeriod)) {
+                retained.add(backup);
+                lastPeriod = period;
+                kept++;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -2,43 +2,215 @@ package edu.ccrm.io;
 
 import edu.ccrm.config.AppConfig;
 import edu.ccrm.util.RecursiveUtils;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
+/**
+ * Full and incremental backups. A full backup exports everything into backup_<timestamp>;
+ * an incremental backup exports only the rows changed since the previous backup into
+ * delta_<timestamp>. Each backup is appended to a chain manifest, and a restore replays
+ * the latest full backup followed by its deltas.
+ *
+ * When AppConfig.isCompressBackups is set, each backup is a single zip archive
+ * (backup_<timestamp>.zip) compressed while it is written, at the configured level.
+ * Restores read archives and plain directories alike.
+ *
+ * After each backup the retention policy from AppConfig prunes old ones. Chains are kept
+ * or pruned as a whole, since a delta cannot be restored without its full backup, and
+ * the latest chain is always kept. Backup sizes are cached by BackupSizeService.
+ */
 public class BackupService {
+    private static final String MANIFEST_FILE = "backup-chain.txt";
+    private static final String[] DATA_FILES = {"students.csv", "courses.csv", "enrollments.csv"};
+    private static final String ARCHIVE_SUFFIX = ".zip";
+    private static final DateTimeFormatter NAME_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
+
+    @FunctionalInterface
+    private interface ArchiveExport {
+        void writeTo(ZipOutputStream archive) throws IOException;
+    }
+
     private final ImportExportService importExportService;
     private final AppConfig config;
+    private final BackupSizeService sizeService;
 
     public BackupService(ImportExportService importExportService, AppConfig config) {
         this.importExportService = importExportService;
         this.config = config;
+        this.sizeService = new BackupSizeService(config);
     }
 
     public Path createBackup() throws IOException {
-        // Create timestamp for backup folder
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
-        String timestamp = LocalDateTime.now().format(formatter);
+        // Taken before exporting, so changes made during the export go into the next delta
+        LocalDateTime capturedAt = LocalDateTime.now();
+
+        Path backupPath;
+        if (config.isCompressBackups()) {
+            backupPath = newBackupPath("backup_", capturedAt, ARCHIVE_SUFFIX);
+            writeArchive(backupPath, importExportService::exportAllData);
+        } else {
+            // Create backup directory
+            backupPath = newBackupPath("backup_", capturedAt, "");
+            Files.createDirectories(backupPath);
+
+            // Export all data to backup directory
+            importExportService.exportAllData(backupPath);
+        }
+        appendToManifest(new ChainEntry(true, backupPath.getFileName().toString(), capturedAt));
+        sizeService.record(backupPath.getFileName().toString());
 
-        // Create backup directory
-        Path backupDir = config.getBackupFolderPath().resolve("backup_" + timestamp);
-        Files.createDirectories(backupDir);
+        System.out.println("Backup created at: " + backupPath);
+        pruneAfterBackup();
+        return backupPath;
+    }
+
+    /**
+     * Exports only what changed since the last backup in the chain. Falls back to a full
+     * backup when there is no chain yet.
+     */
+    public Path createIncrementalBackup() throws IOException {
+        List<ChainEntry> chain = readLatestChain();
+        if (chain.isEmpty()) {
+            System.out.println("No previous backup found; creating a full backup.");
+            return createBackup();
+        }
 
-        // Export all data to backup directory
-        importExportService.exportAllData(backupDir);
+        LocalDateTime since = chain.get(chain.size() - 1).capturedAt;
+        LocalDateTime capturedAt = LocalDateTime.now();
 
-        System.out.println("Backup created at: " + backupDir);
-        return backupDir;
+        Path deltaPath;
+        int[] changed = new int[1];
+        if (config.isCompressBackups()) {
+            deltaPath = newBackupPath("delta_", capturedAt, ARCHIVE_SUFFIX);
+            writeArchive(deltaPath, archive -> changed[0] = importExportService.exportChangesSince(archive, since));
+        } else {
+            deltaPath = newBackupPath("delta_", capturedAt, "");
+            changed[0] = importExportService.exportChangesSince(deltaPath, since);
+        }
+        appendToManifest(new ChainEntry(false, deltaPath.getFileName().toString(), capturedAt));
+        sizeService.record(deltaPath.getFileName().toString());
+
+        System.out.println("Incremental backup created at: " + deltaPath + " (" + changed[0] + " changed rows)");
+        pruneAfterBackup();
+        return deltaPath;
+    }
+
+    /**
+     * Restores the latest full backup plus its deltas into the services. Rows are merged
+     * by key first (a later delta replaces earlier versions of a row), so each entity is
+     * imported once in its latest state. Intended for empty services: rows whose keys
+     * already exist are reported as rejected by the importers.
+     */
+    public void restoreLatestBackup() throws IOException {
+        List<ChainEntry> chain = readLatestChain();
+        if (chain.isEmpty()) {
+            throw new IOException("No backup chain found in " + config.getBackupFolderPath());
+        }
+
+        Path root = config.getBackupFolderPath();
+        if (chain.size() == 1) {
+            // Nothing to merge: stream the data files straight out of the backup
+            String backup = chain.get(0).name;
+            importExportService.importStudentsFromCSV(requireDataFile(backup, "students.csv"), backup + "/students.csv");
+            importExportService.importCoursesFromCSV(requireDataFile(backup, "courses.csv"), backup + "/courses.csv");
+            importExportService.importEnrollmentsFromCSV(requireDataFile(backup, "enrollments.csv"), backup + "/enrollments.csv");
+            System.out.println("Restored " + backup);
+            return;
+        }
+
+        Path merged = Files.createTempDirectory(root, "restore_");
+        try {
+            for (String dataFile : DATA_FILES) {
+                mergeDataFile(chain, dataFile, merged.resolve(dataFile));
+            }
+            importExportService.importAllData(merged);
+        } finally {
+            for (String dataFile : DATA_FILES) {
+                Files.deleteIfExists(merged.resolve(dataFile));
+            }
+            Files.deleteIfExists(merged);
+        }
+
+        System.out.println("Restored " + chain.get(0).name + " with " + (chain.size() - 1) + " incremental backup(s)");
+    }
+
+    // Names of the latest full backup followed by its deltas, oldest first
+    public List<String> getLatestChain() throws IOException {
+        List<String> names = new ArrayList<>();
+        for (ChainEntry entry : readLatestChain()) {
+            names.add(entry.name);
+        }
+        return names;
     }
 
+    // Served from the size manifest; only backups it does not know yet are measured
     public long getBackupSize() throws IOException {
-        Path backupDir = config.getBackupFolderPath();
-        if (!Files.exists(backupDir)) return 0;
+        return sizeService.getTotalSize();
+    }
+
+    public BackupRetentionPolicy getRetentionPolicy() {
+        return new BackupRetentionPolicy(config.getBackupRetainLast(), config.getBackupRetainDaily(),
+                config.getBackupRetainWeekly());
+    }
+
+    /**
+     * Deletes the backups the retention policy does not keep and returns their names.
+     * Each chain is dated by its newest backup. Full backups missing from the manifest,
+     * such as ones made before it existed, are dated by their name and pruned the same way.
+     */
+    public List<String> pruneBackups() throws IOException {
+        List<List<ChainEntry>> chains = readChains();
+        if (chains.isEmpty()) return new ArrayList<>();
+
+        List<List<ChainEntry>> candidates = new ArrayList<>(chains);
+        candidates.addAll(findUntrackedBackups(chains));
 
-        return RecursiveUtils.calculateDirectorySize(backupDir);
+        Set<List<ChainEntry>> retained = getRetentionPolicy().selectRetained(candidates,
+                chain -> chain.get(chain.size() - 1).capturedAt);
+        retained.add(chains.get(chains.size() - 1)); // The chain a restore would use
+
+        List<ChainEntry> keptEntries = new ArrayList<>();
+        for (List<ChainEntry> chain : chains) {
+            if (retained.contains(chain)) keptEntries.addAll(chain);
+        }
+        List<String> pruned = new ArrayList<>();
+        for (List<ChainEntry> chain : candidates) {
+            if (retained.contains(chain)) continue;
+            for (ChainEntry entry : chain) {
+                pruned.add(entry.name);
+            }
+        }
+        if (pruned.isEmpty()) return pruned;
+
+        // Manifest first: a crash part way through leaves unlisted backups, not dangling entries
+        writeManifest(keptEntries);
+        for (String name : pruned) {
+            RecursiveUtils.deleteRecursively(config.getBackupFolderPath().resolve(name));
+        }
+        sizeService.remove(pruned);
+        return pruned;
     }
 
     public void listBackupContents(int maxDepth) throws IOException {
@@ -50,4 +222,212 @@ public class BackupService {
 
         RecursiveUtils.listFilesByDepth(backupDir, maxDepth);
     }
+
+    // A failure to prune is reported but does not fail the backup that was just made
+    private void pruneAfterBackup() {
+        try {
+            List<String> pruned = pruneBackups();
+            if (!pruned.isEmpty()) {
+                System.out.println("Pruned " + pruned.size() + " old backup(s): " + String.join(", ", pruned));
+            }
+        } catch (IOException e) {
+            System.err.println("Error pruning old backups: " + e.getMessage());
+        }
+    }
+
+    // Full backups in the backup folder with no manifest entry, each as a chain of its own
+    private List<List<ChainEntry>> findUntrackedBackups(List<List<ChainEntry>> chains) throws IOException {
+        Set<String> tracked = new HashSet<>();
+        for (List<ChainEntry> chain : chains) {
+            for (ChainEntry entry : chain) {
+                tracked.add(entry.name);
+            }
+        }
+
+        List<List<ChainEntry>> untracked = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(config.getBackupFolderPath(), "backup_*")) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (tracked.contains(name)) continue;
+
+                // backup_yyyyMMdd_HHmmss, then an optional _n and .zip; others are left alone
+                try {
+                    LocalDateTime capturedAt = LocalDateTime.parse(name.substring(7, 22), NAME_TIMESTAMP);
+                    untracked.add(Collections.singletonList(new ChainEntry(true, name, capturedAt)));
+                } catch (IndexOutOfBoundsException | DateTimeParseException e) {
+                    // Not a name this service produced
+                }
+            }
+        }
+        return untracked;
+    }
+
+    private Path newBackupPath(String prefix, LocalDateTime capturedAt, String extension) throws IOException {
+        String name = prefix + capturedAt.format(NAME_TIMESTAMP);
+        Files.createDirectories(config.getBackupFolderPath());
+
+        // Two backups in the same second get distinct names
+        Path path = config.getBackupFolderPath().resolve(name + extension);
+        for (int suffix = 2; Files.exists(path); suffix++) {
+            path = config.getBackupFolderPath().resolve(name + "_" + suffix + extension);
+        }
+        return path;
+    }
+
+    private void writeArchive(Path archivePath, ArchiveExport export) throws IOException {
+        boolean written = false;
+        try (ZipOutputStream archive = new ZipOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(archivePath), 64 * 1024))) {
+            archive.setLevel(config.getBackupCompressionLevel());
+            export.writeTo(archive);
+            written = true;
+        } finally {
+            if (!written) Files.deleteIfExists(archivePath);
+        }
+    }
+
+    private Reader requireDataFile(String backup, String dataFile) throws IOException {
+        Reader reader = openDataFile(backup, dataFile);
+        if (reader == null) throw new IOException("Backup " + backup + " has no " + dataFile);
+        return reader;
+    }
+
+    // Opens a data file of a backup directory or archive, or returns null if the backup has none
+    private Reader openDataFile(String backup, String dataFile) throws IOException {
+        Path path = config.getBackupFolderPath().resolve(backup);
+
+        if (!backup.endsWith(ARCHIVE_SUFFIX)) {
+            Path file = path.resolve(dataFile);
+            return Files.exists(file) ? Files.newBufferedReader(file) : null;
+        }
+
+        ZipFile archive = new ZipFile(path.toFile());
+        ZipEntry entry = archive.getEntry(dataFile);
+        if (entry == null) {
+            archive.close();
+            return null;
+        }
+        // Closing the reader closes the archive
+        return new InputStreamReader(archive.getInputStream(entry), StandardCharsets.UTF_8) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    archive.close();
+                }
+            }
+        };
+    }
+
+    // Merges one data file across the chain, keyed on the row's identifying columns
+    private void mergeDataFile(List<ChainEntry> chain, String dataFile, Path target) throws IOException {
+        int keyColumns = dataFile.equals("courses.csv") ? 2 : 1; // Prefix + Number for courses
+        Map<String, String[]> rows = new LinkedHashMap<>();
+        String header = null;
+
+        for (ChainEntry entry : chain) {
+            Reader reader = openDataFile(entry.name, dataFile);
+            if (reader == null) continue;
+
+            try (CsvTokenizer csv = new CsvTokenizer(reader)) {
+                if (!csv.nextRecord()) continue;
+                if (header == null) header = joinFields(csv);
+
+                while (csv.nextRecord()) {
+                    if (csv.isBlankRecord() || csv.getFieldCount() < keyColumns) continue;
+
+                    String[] fields = new String[csv.getFieldCount()];
+                    for (int i = 0; i < fields.length; i++) {
+                        fields[i] = csv.getString(i);
+                    }
+                    String key = keyColumns == 1 ? fields[0] : fields[0] + "," + fields[1];
+                    rows.put(key, fields);
+                }
+            }
+        }
+
+        try (CsvWriter writer = CsvWriter.open(target)) {
+            if (header != null) writer.line(header);
+            for (String[] fields : rows.values()) {
+                for (String field : fields) {
+                    writer.field(field);
+                }
+                writer.endRecord();
+            }
+        }
+    }
+
+    private static String joinFields(CsvTokenizer csv) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < csv.getFieldCount(); i++) {
+            if (i > 0) joined.append(',');
+            joined.append(csv.getString(i));
+        }
+        return joined.toString();
+    }
+
+    private void appendToManifest(ChainEntry entry) throws IOException {
+        Path manifest = config.getBackupFolderPath().resolve(MANIFEST_FILE);
+        try (BufferedWriter writer = Files.newBufferedWriter(manifest,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(entry.toManifestLine());
+            writer.newLine();
+        }
+    }
+
+    private void writeManifest(List<ChainEntry> entries) throws IOException {
+        Path manifest = config.getBackupFolderPath().resolve(MANIFEST_FILE);
+        Path temp = manifest.resolveSibling(MANIFEST_FILE + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+            for (ChainEntry entry : entries) {
+                writer.write(entry.toManifestLine());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Entries from the last FULL line of the manifest onwards
+    private List<ChainEntry> readLatestChain() throws IOException {
+        List<List<ChainEntry>> chains = readChains();
+        if (chains.isEmpty()) return new ArrayList<>();
+        return chains.get(chains.size() - 1);
+    }
+
+    // Every chain in the manifest, oldest first: a FULL entry followed by its DELTA entries
+    private List<List<ChainEntry>> readChains() throws IOException {
+        Path manifest = config.getBackupFolderPath().resolve(MANIFEST_FILE);
+        List<List<ChainEntry>> chains = new ArrayList<>();
+        if (!Files.exists(manifest)) return chains;
+
+        for (String line : Files.readAllLines(manifest)) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 3) continue;
+
+            ChainEntry entry = new ChainEntry(parts[0].equals("FULL"), parts[1], LocalDateTime.parse(parts[2]));
+            if (entry.full) {
+                chains.add(new ArrayList<>());
+            }
+            // Deltas before the first FULL entry have no base and are dropped
+            if (!chains.isEmpty()) chains.get(chains.size() - 1).add(entry);
+        }
+        return chains;
+    }
+
+    private static final class ChainEntry {
+        private final boolean full;
+        private final String name; // Backup directory or archive file name
+        private final LocalDateTime capturedAt;
+
+        private ChainEntry(boolean full, String name, LocalDateTime capturedAt) {
+            this.full = full;
+            this.name = name;
+            this.capturedAt = capturedAt;
+        }
+
+        private String toManifestLine() {
+            return (full ? "FULL" : "DELTA") + " " + name + " " + capturedAt;
+        }
+    }
 }
\ No newline at end of file
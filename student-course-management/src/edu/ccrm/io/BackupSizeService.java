@@ -0,0 +1,130 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.util.RecursiveUtils;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the size of each backup in a manifest (backup-sizes.txt), so the total backup
+ * size is a sum over cached entries rather than a walk of the backup tree. A backup is
+ * measured once when it is recorded. Backups found without an entry, such as ones made
+ * before the manifest existed, are measured on the next total and then cached.
+ */
+public class BackupSizeService {
+    static final String MANIFEST_FILE = "backup-sizes.txt";
+
+    private final AppConfig config;
+    private Map<String, Long> sizes; // Backup name to size in bytes, loaded on first use
+
+    public BackupSizeService(AppConfig config) {
+        this.config = config;
+    }
+
+    // Measures a new backup and caches its size
+    public synchronized long record(String backup) throws IOException {
+        long size = measure(config.getBackupFolderPath().resolve(backup));
+        load().put(backup, size);
+        save();
+        return size;
+    }
+
+    public synchronized void remove(Collection<String> backups) throws IOException {
+        if (load().keySet().removeAll(backups)) save();
+    }
+
+    public synchronized long getSize(String backup) throws IOException {
+        Long size = load().get(backup);
+        return size != null ? size : record(backup);
+    }
+
+    /**
+     * Total size of the backup folder. Only the top level of the folder is listed, to
+     * notice backups added or deleted by hand; cached backups are not walked again.
+     */
+    public synchronized long getTotalSize() throws IOException {
+        Path root = config.getBackupFolderPath();
+        if (!Files.isDirectory(root)) return 0;
+
+        Map<String, Long> cached = load();
+        Set<String> present = new HashSet<>();
+        boolean changed = false;
+        long total = 0;
+
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (isBackup(name)) {
+                    present.add(name);
+                    Long size = cached.get(name);
+                    if (size == null) {
+                        size = measure(entry);
+                        cached.put(name, size);
+                        changed = true;
+                    }
+                    total += size;
+                } else {
+                    // Manifests and leftovers such as an interrupted restore's temp folder
+                    total += measure(entry);
+                }
+            }
+        }
+
+        if (cached.keySet().retainAll(present)) changed = true;
+        if (changed) save();
+        return total;
+    }
+
+    static boolean isBackup(String name) {
+        return name.startsWith("backup_") || name.startsWith("delta_");
+    }
+
+    private static long measure(Path path) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        return attrs.isDirectory() ? RecursiveUtils.calculateDirectorySize(path) : attrs.size();
+    }
+
+    private Map<String, Long> load() throws IOException {
+        if (sizes != null) return sizes;
+
+        sizes = new LinkedHashMap<>();
+        Path manifest = config.getBackupFolderPath().resolve(MANIFEST_FILE);
+        if (!Files.exists(manifest)) return sizes;
+
+        for (String line : Files.readAllLines(manifest)) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 2) continue;
+            try {
+                sizes.put(parts[0], Long.parseLong(parts[1]));
+            } catch (NumberFormatException e) {
+                // Skipped; the backup is measured again on the next total
+            }
+        }
+        return sizes;
+    }
+
+    private void save() throws IOException {
+        Path manifest = config.getBackupFolderPath().resolve(MANIFEST_FILE);
+        Path temp = manifest.resolveSibling(MANIFEST_FILE + ".tmp");
+        Files.createDirectories(manifest.getParent());
+
+        try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+            for (Map.Entry<String, Long> entry : sizes.entrySet()) {
+                writer.write(entry.getKey() + " " + entry.getValue());
+                writer.newLine();
+            }
+        }
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,251 @@
+package edu.ccrm.io;
+
+import edu.ccrm.service.BatchResult;
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * CSV import pipeline that parses rows and hands them to a batch insert in file order.
+ *
+ * The sequential mode tokenizes the file on the calling thread and flushes every
+ * BATCH_ROWS parsed rows. The parallel mode splits the file into chunks at record
+ * boundaries (newlines outside quotes), worker threads tokenize and parse the chunks,
+ * and the calling thread inserts each chunk as one batch in file order. Either way the
+ * accepted rows and the per-line error report are the same.
+ */
+class CsvImporter<T> {
+    private static final int BATCH_ROWS = 4096;
+    private static final int CHUNK_CHARS = 1 << 20;
+    private static final int READ_CHARS = 64 * 1024;
+
+    @FunctionalInterface
+    interface RowParser<T> {
+        T parse(CsvTokenizer csv) throws Exception;
+    }
+
+    private final String entityName;
+    private final RowParser<T> parser;
+    private final Function<List<T>, BatchResult<T>> batchSink;
+
+    CsvImporter(String entityName, RowParser<T> parser, Function<List<T>, BatchResult<T>> batchSink) {
+        this.entityName = entityName;
+        this.parser = parser;
+        this.batchSink = batchSink;
+    }
+
+    ImportReport importFile(Path filePath) throws IOException {
+        return importReader(Files.newBufferedReader(filePath), filePath.toString());
+    }
+
+    // Sequential import from any character stream, e.g. an entry of a backup archive
+    ImportReport importReader(Reader reader, String source) throws IOException {
+        ImportReport report = new ImportReport(source);
+        List<Row<T>> rows = new ArrayList<>(BATCH_ROWS);
+
+        // Stream the file record by record so memory use does not grow with file size
+        try (CsvTokenizer csv = new CsvTokenizer(reader)) {
+            csv.nextRecord(); // Skip header line
+
+            while (csv.nextRecord()) {
+                if (csv.isBlankRecord()) continue;
+
+                rows.add(parseRow(csv));
+                if (rows.size() == BATCH_ROWS) {
+                    flush(rows, report);
+                    rows.clear();
+                }
+            }
+        }
+        flush(rows, report);
+
+        return report.finish();
+    }
+
+    ImportReport importFile(Path filePath, int workers) throws IOException {
+        if (workers <= 0) throw new IllegalArgumentException("Worker count must be positive");
+
+        ImportReport report = new ImportReport(filePath.toString());
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        // Bounded so memory stays proportional to the worker count, not the file size
+        Deque<Future<List<Row<T>>>> inFlight = new ArrayDeque<>();
+
+        try (Reader reader = Files.newBufferedReader(filePath)) {
+            ChunkSplitter splitter = new ChunkSplitter(reader);
+            boolean first = true;
+
+            Chunk chunk;
+            while ((chunk = splitter.next()) != null) {
+                Chunk current = chunk;
+                boolean skipHeader = first;
+                first = false;
+
+                inFlight.add(pool.submit(() -> parseChunk(current, skipHeader)));
+                if (inFlight.size() >= workers * 2) {
+                    merge(inFlight.poll(), report);
+                }
+            }
+
+            while (!inFlight.isEmpty()) {
+                merge(inFlight.poll(), report);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return report.finish();
+    }
+
+    private List<Row<T>> parseChunk(Chunk chunk, boolean skipHeader) throws IOException {
+        List<Row<T>> rows = new ArrayList<>();
+
+        try (CsvTokenizer csv = new CsvTokenizer(new CharArrayReader(chunk.chars), chunk.firstLine)) {
+            if (skipHeader) csv.nextRecord();
+
+            while (csv.nextRecord()) {
+                if (csv.isBlankRecord()) continue;
+                rows.add(parseRow(csv));
+            }
+        }
+        return rows;
+    }
+
+    private Row<T> parseRow(CsvTokenizer csv) {
+        try {
+            return new Row<>(csv.getLineNumber(), parser.parse(csv), null);
+        } catch (Exception e) {
+            return new Row<>(csv.getLineNumber(), null, e.getMessage());
+        }
+    }
+
+    private void merge(Future<List<Row<T>>> future, ImportReport report) throws IOException {
+        List<Row<T>> rows;
+        try {
+            rows = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        flush(rows, report);
+    }
+
+    // Inserts the parsed rows as one batch and reports parse errors and rejections by line
+    private void flush(List<Row<T>> rows, ImportReport report) {
+        List<T> parsed = new ArrayList<>(rows.size());
+        for (Row<T> row : rows) {
+            if (row.error == null) parsed.add(row.value);
+        }
+
+        List<BatchResult.Outcome<T>> outcomes = parsed.isEmpty()
+                ? new ArrayList<>() : batchSink.apply(parsed).getOutcomes();
+
+        int next = 0;
+        for (Row<T> row : rows) {
+            String error = row.error;
+            if (error == null) {
+                BatchResult.Outcome<T> outcome = outcomes.get(next++);
+                if (outcome.isAccepted()) {
+                    report.recordImported();
+                    continue;
+                }
+                error = outcome.getMessage();
+            }
+            System.err.println("Error importing " + entityName + " from line " + row.lineNumber + ": " + error);
+            report.recordRejected();
+        }
+    }
+
+    private static final class Row<T> {
+        private final int lineNumber;
+        private final T value;
+        private final String error;
+
+        private Row(int lineNumber, T value, String error) {
+            this.lineNumber = lineNumber;
+            this.value = value;
+            this.error = error;
+        }
+    }
+
+    private static final class Chunk {
+        private final char[] chars;
+        private final int firstLine;
+
+        private Chunk(char[] chars, int firstLine) {
+            this.chars = chars;
+            this.firstLine = firstLine;
+        }
+    }
+
+    // Cuts the input into chunks of roughly CHUNK_CHARS that end on a record boundary
+    private static final class ChunkSplitter {
+        private final Reader reader;
+        private char[] buffer = new char[CHUNK_CHARS + READ_CHARS];
+        private int length;
+        private int scanned;
+        private int boundary; // end of the last complete record in the buffer
+        private boolean inQuotes;
+        private boolean eof;
+        private int nextLine = 1;
+
+        private ChunkSplitter(Reader reader) {
+            this.reader = reader;
+        }
+
+        private Chunk next() throws IOException {
+            while (!eof && boundary < CHUNK_CHARS) {
+                if (length + READ_CHARS > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int n = reader.read(buffer, length, READ_CHARS);
+                if (n < 0) {
+                    eof = true;
+                } else {
+                    length += n;
+                    scan();
+                }
+            }
+
+            int end = eof ? length : boundary;
+            if (end == 0) return null;
+
+            char[] chars = Arrays.copyOf(buffer, end);
+            Chunk chunk = new Chunk(chars, nextLine);
+            for (char c : chars) {
+                if (c == '\n') nextLine++;
+            }
+
+            System.arraycopy(buffer, end, buffer, 0, length - end);
+            length -= end;
+            scanned -= end;
+            boundary = Math.max(0, boundary - end);
+            return chunk;
+        }
+
+        private void scan() {
+            for (int i = scanned; i < length; i++) {
+                char c = buffer[i];
+                if (c == '"') {
+                    inQuotes = !inQuotes;
+                } else if (c == '\n' && !inQuotes) {
+                    boundary = i + 1;
+                }
+            }
+            scanned = length;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,261 @@
+package edu.ccrm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * RFC 4180 CSV tokenizer that reads one record at a time into reusable char buffers.
+ * Handles quoted fields, doubled-quote escapes, embedded commas and line breaks, and
+ * LF / CRLF / CR line endings. Unquoted fields are trimmed; quoted fields are kept as-is.
+ *
+ * Fields are exposed by index and converted on demand (getString, getInt, getEnum, ...),
+ * so only the values the caller actually needs are materialized.
+ */
+public class CsvTokenizer implements Closeable {
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] input = new char[INPUT_BUFFER_SIZE];
+    private int inputPos;
+    private int inputLimit;
+    private boolean eof;
+
+    // Current record: field contents are stored back to back in one buffer
+    private char[] record = new char[256];
+    private int recordLength;
+    private int[] fieldStart = new int[16];
+    private int[] fieldEnd = new int[16];
+    private boolean[] fieldQuoted = new boolean[16];
+    private int fieldCount;
+
+    private int nextLine = 1;
+    private int recordLine;
+
+    public CsvTokenizer(Reader reader) {
+        this(reader, 1);
+    }
+
+    // For tokenizing a slice of a larger file that starts at the given line
+    public CsvTokenizer(Reader reader, int firstLineNumber) {
+        if (reader == null) throw new IllegalArgumentException("Reader cannot be null");
+        this.reader = reader;
+        this.nextLine = firstLineNumber;
+    }
+
+    /**
+     * Advances to the next record. Returns false when the input is exhausted.
+     */
+    public boolean nextRecord() throws IOException {
+        fieldCount = 0;
+        recordLength = 0;
+
+        int c = read();
+        if (c < 0) return false;
+
+        recordLine = nextLine;
+        int start = 0;
+        boolean quoted = false;
+        boolean inQuotes = false;
+
+        while (true) {
+            if (inQuotes) {
+                if (c < 0) {
+                    // Unterminated quote: take what we have
+                    endField(start, true);
+                    return true;
+                }
+                if (c == '"') {
+                    int next = peek();
+                    if (next == '"') {
+                        read();
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') nextLine++;
+                    append((char) c);
+                }
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') read();
+                if (c >= 0) nextLine++;
+                endField(start, quoted);
+                return true;
+            } else if (c == ',') {
+                endField(start, quoted);
+                start = recordLength;
+                quoted = false;
+            } else if (c == '"' && !quoted && isBlank(start, recordLength)) {
+                // Opening quote (leading whitespace before it is dropped)
+                recordLength = start;
+                quoted = true;
+                inQuotes = true;
+            } else if (quoted && (c == ' ' || c == '\t')) {
+                // Whitespace between a closing quote and the delimiter is ignored
+            } else {
+                append((char) c);
+            }
+
+            c = read();
+        }
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    // Physical line number (1-based) on which the current record starts
+    public int getLineNumber() {
+        return recordLine;
+    }
+
+    // True for an empty line, which yields a single empty unquoted field
+    public boolean isBlankRecord() {
+        return fieldCount == 1 && !fieldQuoted[0] && fieldStart[0] == fieldEnd[0];
+    }
+
+    public boolean isEmpty(int index) {
+        checkIndex(index);
+        return fieldStart[index] == fieldEnd[index];
+    }
+
+    public String getString(int index) {
+        checkIndex(index);
+        return new String(record, fieldStart[index], fieldEnd[index] - fieldStart[index]);
+    }
+
+    public int getInt(int index) {
+        checkIndex(index);
+        int pos = fieldStart[index];
+        int end = fieldEnd[index];
+        if (pos == end) throw new NumberFormatException("For input string: \"\"");
+
+        boolean negative = false;
+        if (record[pos] == '-' || record[pos] == '+') {
+            negative = record[pos] == '-';
+            pos++;
+            if (pos == end) throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = record[pos] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + getString(index) + "\"");
+        }
+        return (int) value;
+    }
+
+    // Same semantics as Boolean.parseBoolean: true only for "true", ignoring case
+    public boolean getBoolean(int index) {
+        return equalsIgnoreCase(index, "true");
+    }
+
+    // Case-insensitive match against the enum constant names, like valueOf(s.toUpperCase())
+    public <E extends Enum<E>> E getEnum(int index, Class<E> type) {
+        for (E constant : type.getEnumConstants()) {
+            if (equalsIgnoreCase(index, constant.name())) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + getString(index));
+    }
+
+    public boolean equalsIgnoreCase(int index, String value) {
+        checkIndex(index);
+        int start = fieldStart[index];
+        int length = fieldEnd[index] - start;
+        if (length != value.length()) return false;
+
+        for (int i = 0; i < length; i++) {
+            char a = record[start + i];
+            char b = value.charAt(i);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void endField(int start, boolean quoted) {
+        int end = recordLength;
+        if (!quoted) {
+            while (start < end && record[start] <= ' ') start++;
+            while (end > start && record[end - 1] <= ' ') end--;
+        }
+
+        if (fieldCount == fieldStart.length) {
+            int capacity = fieldCount * 2;
+            fieldStart = Arrays.copyOf(fieldStart, capacity);
+            fieldEnd = Arrays.copyOf(fieldEnd, capacity);
+            fieldQuoted = Arrays.copyOf(fieldQuoted, capacity);
+        }
+        fieldStart[fieldCount] = start;
+        fieldEnd[fieldCount] = end;
+        fieldQuoted[fieldCount] = quoted;
+        fieldCount++;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (record[i] > ' ') return false;
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, record.length * 2);
+        }
+        record[recordLength++] = c;
+    }
+
+    private int read() throws IOException {
+        if (inputPos == inputLimit && !fill()) return -1;
+        return input[inputPos++];
+    }
+
+    private int peek() throws IOException {
+        if (inputPos == inputLimit && !fill()) return -1;
+        return input[inputPos];
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) return false;
+
+        int n;
+        do {
+            n = reader.read(input, 0, input.length);
+        } while (n == 0);
+
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        inputPos = 0;
+        inputLimit = n;
+        return true;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " out of " + fieldCount);
+        }
+    }
+}
\ No newline at end of file
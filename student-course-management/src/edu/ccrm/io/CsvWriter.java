@@ -0,0 +1,264 @@
+package edu.ccrm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * CSV writer that encodes fields straight into a reusable UTF-8 byte buffer and writes
+ * it to a channel in large blocks. Fields are quoted only when they contain a delimiter,
+ * quote, line break or leading/trailing whitespace, so the output reads back unchanged
+ * through CsvTokenizer.
+ *
+ * Timestamps are written as "yyyy-MM-dd HH:mm:ss"; the date part is cached because
+ * consecutive rows usually share it, and the time digits are written directly.
+ */
+public class CsvWriter implements Closeable {
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final WritableByteChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer view = ByteBuffer.wrap(buffer);
+    private int position;
+    private boolean firstField = true;
+    private long recordCount;
+
+    private LocalDate cachedDate;
+    private final byte[] cachedDateBytes = new byte[10];
+
+    public CsvWriter(WritableByteChannel channel) {
+        if (channel == null) throw new IllegalArgumentException("Channel cannot be null");
+        this.channel = channel;
+    }
+
+    // Creates or truncates the file and writes to it through a FileChannel
+    public static CsvWriter open(Path filePath) throws IOException {
+        return new CsvWriter(FileChannel.open(filePath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    // Writes a header or other pre-formatted line as-is, followed by a line break
+    public CsvWriter line(String text) throws IOException {
+        writeChars(text);
+        return endRecord();
+    }
+
+    public CsvWriter field(String value) throws IOException {
+        separator();
+        if (value == null) return this;
+
+        if (needsQuotes(value)) {
+            writeQuoted(value);
+        } else {
+            writeChars(value);
+        }
+        return this;
+    }
+
+    // Writes two strings as a single field, e.g. a course code's prefix and number
+    public CsvWriter field(String first, String second) throws IOException {
+        if (needsQuotes(first) || needsQuotes(second)) {
+            return field(first + second);
+        }
+
+        separator();
+        writeChars(first);
+        writeChars(second);
+        return this;
+    }
+
+    public CsvWriter field(int value) throws IOException {
+        separator();
+        ensureCapacity(11);
+
+        long v = value;
+        if (v < 0) {
+            buffer[position++] = '-';
+            v = -v;
+        }
+        int digits = 1;
+        for (long limit = 10; v >= limit && digits < 10; limit *= 10) digits++;
+
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + v % 10);
+            v /= 10;
+        }
+        position = end;
+        return this;
+    }
+
+    public CsvWriter field(boolean value) throws IOException {
+        separator();
+        writeBytes(value ? TRUE : FALSE);
+        return this;
+    }
+
+    // Enum and other values are written through toString, which is a constant for enums
+    public CsvWriter field(Object value) throws IOException {
+        return field(value != null ? value.toString() : null);
+    }
+
+    public CsvWriter field(LocalDateTime value) throws IOException {
+        separator();
+        if (value == null) return this;
+
+        LocalDate date = value.toLocalDate();
+        if (!date.equals(cachedDate)) {
+            cachedDate = date;
+            int year = date.getYear();
+            cachedDateBytes[0] = digit(year / 1000 % 10);
+            cachedDateBytes[1] = digit(year / 100 % 10);
+            cachedDateBytes[2] = digit(year / 10 % 10);
+            cachedDateBytes[3] = digit(year % 10);
+            cachedDateBytes[4] = '-';
+            cachedDateBytes[5] = digit(date.getMonthValue() / 10);
+            cachedDateBytes[6] = digit(date.getMonthValue() % 10);
+            cachedDateBytes[7] = '-';
+            cachedDateBytes[8] = digit(date.getDayOfMonth() / 10);
+            cachedDateBytes[9] = digit(date.getDayOfMonth() % 10);
+        }
+
+        ensureCapacity(19);
+        System.arraycopy(cachedDateBytes, 0, buffer, position, 10);
+        position += 10;
+        buffer[position++] = ' ';
+        writeTwoDigits(value.getHour());
+        buffer[position++] = ':';
+        writeTwoDigits(value.getMinute());
+        buffer[position++] = ':';
+        writeTwoDigits(value.getSecond());
+        return this;
+    }
+
+    public CsvWriter endRecord() throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = '\n';
+        firstField = true;
+        recordCount++;
+        return this;
+    }
+
+    // Number of records ended so far, including any header line
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void flush() throws IOException {
+        view.clear().limit(position);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void separator() throws IOException {
+        if (firstField) {
+            firstField = false;
+        } else {
+            ensureCapacity(1);
+            buffer[position++] = ',';
+        }
+    }
+
+    private void writeQuoted(String value) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = '"';
+        int from = 0;
+        for (int quote = value.indexOf('"'); quote >= 0; quote = value.indexOf('"', quote + 1)) {
+            writeChars(value, from, quote + 1);
+            from = quote; // The quote is written again, doubling it
+        }
+        writeChars(value, from, value.length());
+        ensureCapacity(1);
+        buffer[position++] = '"';
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        // CsvTokenizer trims unquoted fields
+        return !value.isEmpty() && (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ');
+    }
+
+
+    private void writeChars(String value) throws IOException {
+        writeChars(value, 0, value.length());
+    }
+
+    private void writeChars(String value, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                ensureCapacity(1);
+                buffer[position++] = (byte) c;
+            } else {
+                i = writeEncoded(value, i);
+            }
+        }
+    }
+
+    // UTF-8 encodes the non-ASCII char at index i and returns the last index consumed
+    private int writeEncoded(String value, int i) throws IOException {
+        ensureCapacity(4);
+        char c = value.charAt(i);
+        if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | c >> 6);
+            buffer[position++] = (byte) (0x80 | c & 0x3F);
+        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, value.charAt(++i));
+            buffer[position++] = (byte) (0xF0 | cp >> 18);
+            buffer[position++] = (byte) (0x80 | cp >> 12 & 0x3F);
+            buffer[position++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            buffer[position++] = (byte) (0x80 | cp & 0x3F);
+        } else if (Character.isSurrogate(c)) {
+            buffer[position++] = '?'; // Unpaired surrogate, as String.getBytes would do
+        } else {
+            buffer[position++] = (byte) (0xE0 | c >> 12);
+            buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+            buffer[position++] = (byte) (0x80 | c & 0x3F);
+        }
+        return i;
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeTwoDigits(int value) {
+        buffer[position++] = digit(value / 10);
+        buffer[position++] = digit(value % 10);
+    }
+
+    private static byte digit(int value) {
+        return (byte) ('0' + value);
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            flush();
+        }
+    }
+}
\ No newline at end of file
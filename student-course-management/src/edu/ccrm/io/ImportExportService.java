@@ -4,189 +4,378 @@ import edu.ccrm.domain.*;
 import edu.ccrm.service.StudentService;
 import edu.ccrm.service.CourseService;
 import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.ReadModel;
+import edu.ccrm.service.ReadView;
 import edu.ccrm.util.Validator;
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 public class ImportExportService {
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Below this many enrollments per shard, splitting costs more than it saves
+    private static final int MIN_ROWS_PER_SHARD = 100_000;
+
     private final StudentService studentService;
     private final CourseService courseService;
     private final EnrollmentService enrollmentService;
+    private final ReadModel readModel; // Exports are written from one of its views
     private final Validator validator;
 
     public ImportExportService(StudentService studentService, CourseService courseService,
-                               EnrollmentService enrollmentService, Validator validator) {
+                               EnrollmentService enrollmentService, ReadModel readModel, Validator validator) {
+        if (readModel == null) throw new IllegalArgumentException("Read model cannot be null");
+
         this.studentService = studentService;
         this.courseService = courseService;
         this.enrollmentService = enrollmentService;
+        this.readModel = readModel;
         this.validator = validator;
     }
 
-    public void importStudentsFromCSV(Path filePath) throws IOException {
+    public ImportReport importStudentsFromCSV(Path filePath) throws IOException {
         if (filePath == null || !Files.exists(filePath)) {
             throw new IOException("File does not exist: " + filePath);
         }
 
-        List<String> lines = Files.readAllLines(filePath);
+        ImportReport report = studentImporter().importFile(filePath);
+        System.out.println("Imported students: " + report);
+        return report;
+    }
 
-        // Skip header line
-        for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i);
-            String[] parts = line.split(",");
+    /**
+     * Parallel variant of importStudentsFromCSV: rows are parsed and validated on a pool
+     * of worker threads and inserted in file order, so the accepted rows and the error
+     * report are the same as the sequential import.
+     */
+    public ImportReport importStudentsFromCSV(Path filePath, int workers) throws IOException {
+        if (filePath == null || !Files.exists(filePath)) {
+            throw new IOException("File does not exist: " + filePath);
+        }
 
-            if (parts.length >= 5) {
-                try {
-                    String id = parts[0].trim();
-                    String regNo = parts[1].trim();
-                    String firstName = parts[2].trim();
-                    String lastName = parts[3].trim();
-                    String email = parts[4].trim();
+        ImportReport report = studentImporter().importFile(filePath, workers);
+        System.out.println("Imported students: " + report);
+        return report;
+    }
 
-                    Name fullName = new Name(firstName, lastName);
-                    Student student = new Student(id, fullName, email, regNo);
+    // Reads students from a stream, e.g. an entry of a backup archive; closes the reader
+    public ImportReport importStudentsFromCSV(Reader reader, String source) throws IOException {
+        ImportReport report = studentImporter().importReader(reader, source);
+        System.out.println("Imported students: " + report);
+        return report;
+    }
 
-                    if (parts.length > 5) {
-                        student.setStatus(StudentStatus.valueOf(parts[5].trim().toUpperCase()));
-                    }
+    private CsvImporter<Student> studentImporter() {
+        return new CsvImporter<>("student",
+                csv -> {
+                    Student student = parseStudent(csv);
+                    if (!validator.validateStudent(student)) throw new IllegalArgumentException("Invalid student data");
+                    return student;
+                },
+                studentService::addStudents);
+    }
 
-                    studentService.addStudent(student);
-                } catch (Exception e) {
-                    System.err.println("Error importing student from line " + (i + 1) + ": " + e.getMessage());
-                }
-            }
+    private Student parseStudent(CsvTokenizer csv) {
+        if (csv.getFieldCount() < 5) {
+            throw new IllegalArgumentException("expected at least 5 fields");
         }
 
-        System.out.println("Imported " + (lines.size() - 1) + " students from " + filePath);
+        String id = csv.getString(0);
+        String regNo = csv.getString(1);
+        String firstName = csv.getString(2);
+        String lastName = csv.getString(3);
+        String email = csv.getString(4);
+
+        Name fullName = new Name(firstName, lastName);
+        Student student = new Student(id, fullName, email, regNo);
+
+        if (csv.getFieldCount() > 5 && !csv.isEmpty(5)) {
+            student.setStatus(csv.getEnum(5, StudentStatus.class));
+        }
+        if (csv.getFieldCount() > 8 && !csv.isEmpty(8)) {
+            student.setActive(csv.getBoolean(8));
+        }
+        return student;
     }
 
     public void exportStudentsToCSV(Path filePath) throws IOException {
         if (filePath == null) throw new IllegalArgumentException("File path cannot be null");
 
-        List<Student> students = studentService.getAllStudents();
-
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-            // Write header
-            writer.write("ID,RegNo,FirstName,LastName,Email,Status,CreatedAt,UpdatedAt,Active\n");
-
-            // Write data
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            for (Student student : students) {
-                writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s\n",
-                        student.getId(),
-                        student.getRegNo(),
-                        student.getFullName().getFirstName(),
-                        student.getFullName().getLastName(),
-                        student.getEmail(),
-                        student.getStatus(),
-                        student.getCreatedAt().format(formatter),
-                        student.getUpdatedAt().format(formatter),
-                        student.isActive()));
-            }
-        }
+        List<ReadView.StudentRow> students = readModel.snapshot().getStudents();
+        writeStudents(filePath, students);
 
         System.out.println("Exported " + students.size() + " students to " + filePath);
     }
 
-    public void importCoursesFromCSV(Path filePath) throws IOException {
+    private void writeStudents(Path filePath, List<ReadView.StudentRow> students) throws IOException {
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeStudents(writer, students);
+        }
+    }
+
+    private void writeStudents(CsvWriter writer, List<ReadView.StudentRow> students) throws IOException {
+        writer.line("ID,RegNo,FirstName,LastName,Email,Status,CreatedAt,UpdatedAt,Active");
+
+        for (ReadView.StudentRow student : students) {
+            writer.field(student.getId())
+                    .field(student.getRegNo())
+                    .field(student.getFullName().getFirstName())
+                    .field(student.getFullName().getLastName())
+                    .field(student.getEmail())
+                    .field(student.getStatus())
+                    .field(student.getCreatedAt())
+                    .field(student.getUpdatedAt())
+                    .field(student.isActive())
+                    .endRecord();
+        }
+    }
+
+    public ImportReport importCoursesFromCSV(Path filePath) throws IOException {
         if (filePath == null || !Files.exists(filePath)) {
             throw new IOException("File does not exist: " + filePath);
         }
 
-        List<String> lines = Files.readAllLines(filePath);
+        ImportReport report = courseImporter().importFile(filePath);
+        System.out.println("Imported courses: " + report);
+        return report;
+    }
+
+    /**
+     * Parallel variant of importCoursesFromCSV, see importStudentsFromCSV(Path, int).
+     */
+    public ImportReport importCoursesFromCSV(Path filePath, int workers) throws IOException {
+        if (filePath == null || !Files.exists(filePath)) {
+            throw new IOException("File does not exist: " + filePath);
+        }
 
-        // Skip header line
-        for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i);
-            String[] parts = line.split(",");
+        ImportReport report = courseImporter().importFile(filePath, workers);
+        System.out.println("Imported courses: " + report);
+        return report;
+    }
 
-            if (parts.length >= 6) {
-                try {
-                    String prefix = parts[0].trim();
-                    String number = parts[1].trim();
-                    String title = parts[2].trim();
-                    int credits = Integer.parseInt(parts[3].trim());
-                    String department = parts[4].trim();
-                    Semester semester = Semester.valueOf(parts[5].trim().toUpperCase());
+    public ImportReport importCoursesFromCSV(Reader reader, String source) throws IOException {
+        ImportReport report = courseImporter().importReader(reader, source);
+        System.out.println("Imported courses: " + report);
+        return report;
+    }
 
-                    CourseCode code = new CourseCode(prefix, number);
+    private CsvImporter<Course> courseImporter() {
+        // Courses taught by the same instructor share one object, as they do when loaded
+        ConcurrentMap<String, Instructor> instructorsById = new ConcurrentHashMap<>();
+        for (Course course : courseService.viewAllCourses()) {
+            if (course.getInstructor() != null) {
+                instructorsById.putIfAbsent(course.getInstructor().getId(), course.getInstructor());
+            }
+        }
+        return new CsvImporter<>("course", csv -> parseCourse(csv, instructorsById), courseService::addCourses);
+    }
 
-                    Course.Builder builder = new Course.Builder(code)
-                            .title(title)
-                            .credits(credits)
-                            .department(department)
-                            .semester(semester);
+    private Course parseCourse(CsvTokenizer csv, ConcurrentMap<String, Instructor> instructorsById) {
+        if (csv.getFieldCount() < 6) {
+            throw new IllegalArgumentException("expected at least 6 fields");
+        }
 
-                    if (parts.length > 6 && !parts[6].trim().isEmpty()) {
-                        builder.active(Boolean.parseBoolean(parts[6].trim()));
-                    }
+        String prefix = csv.getString(0);
+        String number = csv.getString(1);
+        String title = csv.getString(2);
+        int credits = csv.getInt(3);
+        String department = csv.getString(4);
+        Semester semester = csv.getEnum(5, Semester.class);
 
-                    Course course = builder.build();
-                    courseService.addCourse(course);
-                } catch (Exception e) {
-                    System.err.println("Error importing course from line " + (i + 1) + ": " + e.getMessage());
-                }
+        CourseCode code = new CourseCode(prefix, number);
+
+        Course.Builder builder = new Course.Builder(code)
+                .title(title)
+                .credits(credits)
+                .department(department)
+                .semester(semester);
+
+        if (csv.getFieldCount() > 6 && !csv.isEmpty(6)) {
+            builder.active(csv.getBoolean(6));
+        }
+
+        if (csv.getFieldCount() > 8 && !csv.isEmpty(8)) {
+            builder.capacity(csv.getInt(8));
+        }
+
+        Instructor instructor = csv.getFieldCount() > 7 && !csv.isEmpty(7)
+                ? parseInstructor(csv, instructorsById) : null;
+        builder.instructor(instructor);
+
+        Course course = builder.build();
+        if (instructor != null) {
+            synchronized (instructor) {
+                instructor.assignCourse(course);
             }
         }
+        return course;
+    }
 
-        System.out.println("Imported " + (lines.size() - 1) + " courses from " + filePath);
+    // Resolves InstructorID against instructors already known, else builds one from the
+    // detail columns; files written before those columns existed only carry the ID
+    private Instructor parseInstructor(CsvTokenizer csv, ConcurrentMap<String, Instructor> instructorsById) {
+        String id = csv.getString(7);
+        Instructor known = instructorsById.get(id);
+        if (known != null || csv.getFieldCount() < 14) return known;
+
+        Name name = new Name(csv.getString(9), csv.getString(10));
+        Instructor instructor = new Instructor(id, name, csv.getString(11), csv.getString(12), csv.getString(13));
+        known = instructorsById.putIfAbsent(id, instructor);
+        return known != null ? known : instructor;
     }
 
     public void exportCoursesToCSV(Path filePath) throws IOException {
         if (filePath == null) throw new IllegalArgumentException("File path cannot be null");
 
-        List<Course> courses = courseService.getAllCourses();
-
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-            // Write header
-            writer.write("Prefix,Number,Title,Credits,Department,Semester,Active,InstructorID\n");
-
-            // Write data
-            for (Course course : courses) {
-                writer.write(String.format("%s,%s,%s,%d,%s,%s,%s,%s\n",
-                        course.getCode().getPrefix(),
-                        course.getCode().getNumber(),
-                        course.getTitle(),
-                        course.getCredits(),
-                        course.getDepartment(),
-                        course.getSemester(),
-                        course.isActive(),
-                        course.getInstructor() != null ? course.getInstructor().getId() : ""));
-            }
-        }
+        List<ReadView.CourseRow> courses = readModel.snapshot().getCourses();
+        writeCourses(filePath, courses);
 
         System.out.println("Exported " + courses.size() + " courses to " + filePath);
     }
 
+    private void writeCourses(Path filePath, List<ReadView.CourseRow> courses) throws IOException {
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeCourses(writer, courses);
+        }
+    }
+
+    private void writeCourses(CsvWriter writer, List<ReadView.CourseRow> courses) throws IOException {
+        writer.line("Prefix,Number,Title,Credits,Department,Semester,Active,InstructorID,Capacity," +
+                "InstructorFirstName,InstructorLastName,InstructorEmail,InstructorEmployeeID,InstructorDepartment");
+
+        for (ReadView.CourseRow course : courses) {
+            ReadView.InstructorRow instructor = course.getInstructor();
+            writer.field(course.getCode().getPrefix())
+                    .field(course.getCode().getNumber())
+                    .field(course.getTitle())
+                    .field(course.getCredits())
+                    .field(course.getDepartment())
+                    .field(course.getSemester())
+                    .field(course.isActive())
+                    .field(instructor != null ? instructor.getId() : null)
+                    .field(course.getCapacity())
+                    .field(instructor != null ? instructor.getFullName().getFirstName() : null)
+                    .field(instructor != null ? instructor.getFullName().getLastName() : null)
+                    .field(instructor != null ? instructor.getEmail() : null)
+                    .field(instructor != null ? instructor.getEmployeeId() : null)
+                    .field(instructor != null ? instructor.getDepartment() : null)
+                    .endRecord();
+        }
+    }
+
+    /**
+     * Restores enrollments exported by exportEnrollmentsToCSV. Students and courses must
+     * already be loaded; rows are inserted through EnrollmentService.restoreEnrollments.
+     */
+    public ImportReport importEnrollmentsFromCSV(Path filePath) throws IOException {
+        if (filePath == null || !Files.exists(filePath)) {
+            throw new IOException("File does not exist: " + filePath);
+        }
+
+        ImportReport report = enrollmentImporter().importFile(filePath);
+        System.out.println("Imported enrollments: " + report);
+        return report;
+    }
+
+    /**
+     * Parallel variant of importEnrollmentsFromCSV, see importStudentsFromCSV(Path, int).
+     */
+    public ImportReport importEnrollmentsFromCSV(Path filePath, int workers) throws IOException {
+        if (filePath == null || !Files.exists(filePath)) {
+            throw new IOException("File does not exist: " + filePath);
+        }
+
+        ImportReport report = enrollmentImporter().importFile(filePath, workers);
+        System.out.println("Imported enrollments: " + report);
+        return report;
+    }
+
+    public ImportReport importEnrollmentsFromCSV(Reader reader, String source) throws IOException {
+        ImportReport report = enrollmentImporter().importReader(reader, source);
+        System.out.println("Imported enrollments: " + report);
+        return report;
+    }
+
+    private CsvImporter<Enrollment> enrollmentImporter() {
+        return new CsvImporter<>("enrollment", this::parseEnrollment, enrollmentService::restoreEnrollments);
+    }
+
+    private Enrollment parseEnrollment(CsvTokenizer csv) {
+        if (csv.getFieldCount() < 4) {
+            throw new IllegalArgumentException("expected at least 4 fields");
+        }
+
+        String id = csv.getString(0);
+        Student student = studentService.getStudent(csv.getString(1));
+        if (student == null) {
+            throw new IllegalArgumentException("Unknown student " + csv.getString(1));
+        }
+        Course course = courseService.getCourse(csv.getString(2));
+        if (course == null) {
+            throw new IllegalArgumentException("Unknown course " + csv.getString(2));
+        }
+        LocalDateTime enrollmentDate = LocalDateTime.parse(csv.getString(3), TIMESTAMP_FORMAT);
+
+        Enrollment enrollment = new Enrollment(id, student, course, enrollmentDate);
+        if (csv.getFieldCount() > 4 && !csv.isEmpty(4)) {
+            enrollment.setGrade(Grade.fromLetter(csv.getString(4)));
+        }
+        if (csv.getFieldCount() > 5 && !csv.isEmpty(5)) {
+            enrollment.setActive(csv.getBoolean(5));
+        }
+        return enrollment;
+    }
+
     public void exportEnrollmentsToCSV(Path filePath) throws IOException {
         if (filePath == null) throw new IllegalArgumentException("File path cannot be null");
 
-        List<Enrollment> enrollments = enrollmentService.getAllEnrollments();
-
-        try (BufferedWriter writer = Files.newBufferedWriter(filePath)) {
-            // Write header
-            writer.write("ID,StudentID,CourseCode,EnrollmentDate,Grade,Active\n");
-
-            // Write data
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-            for (Enrollment enrollment : enrollments) {
-                writer.write(String.format("%s,%s,%s,%s,%s,%s\n",
-                        enrollment.getId(),
-                        enrollment.getStudent().getId(),
-                        enrollment.getCourse().getCode().toString(),
-                        enrollment.getEnrollmentDate().format(formatter),
-                        enrollment.getGrade() != null ? enrollment.getGrade() : "",
-                        enrollment.isActive()));
-            }
-        }
+        List<ReadView.EnrollmentRow> enrollments = readModel.snapshot().getEnrollments();
+        writeEnrollments(filePath, enrollments, 0, enrollments.size(), true);
 
         System.out.println("Exported " + enrollments.size() + " enrollments to " + filePath);
     }
 
+    // Writes enrollments[from, to), optionally preceded by the header line
+    private void writeEnrollments(Path filePath, List<ReadView.EnrollmentRow> enrollments, int from, int to,
+                                  boolean header) throws IOException {
+        try (CsvWriter writer = CsvWriter.open(filePath)) {
+            writeEnrollments(writer, enrollments, from, to, header);
+        }
+    }
+
+    private void writeEnrollments(CsvWriter writer, List<ReadView.EnrollmentRow> enrollments, int from, int to,
+                                  boolean header) throws IOException {
+        if (header) writer.line("ID,StudentID,CourseCode,EnrollmentDate,Grade,Active");
+
+        for (ReadView.EnrollmentRow enrollment : enrollments.subList(from, to)) {
+            CourseCode code = enrollment.getCourseCode();
+            writer.field(enrollment.getId())
+                    .field(enrollment.getStudentId())
+                    .field(code.getPrefix(), code.getNumber())
+                    .field(enrollment.getEnrollmentDate())
+                    .field(enrollment.getGrade())
+                    .field(enrollment.isActive())
+                    .endRecord();
+        }
+    }
+
     public void exportAllData(Path directory) throws IOException {
         if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
 
@@ -194,14 +383,231 @@ public class ImportExportService {
             Files.createDirectories(directory);
         }
 
+        // All three files come from one view, so they agree with each other
+        ReadView view = readModel.snapshot();
         Path studentsFile = directory.resolve("students.csv");
         Path coursesFile = directory.resolve("courses.csv");
         Path enrollmentsFile = directory.resolve("enrollments.csv");
 
-        exportStudentsToCSV(studentsFile);
-        exportCoursesToCSV(coursesFile);
-        exportEnrollmentsToCSV(enrollmentsFile);
+        writeStudents(studentsFile, view.getStudents());
+        System.out.println("Exported " + view.getStudents().size() + " students to " + studentsFile);
+        writeCourses(coursesFile, view.getCourses());
+        System.out.println("Exported " + view.getCourses().size() + " courses to " + coursesFile);
+        writeEnrollments(enrollmentsFile, view.getEnrollments(), 0, view.getEnrollments().size(), true);
+        System.out.println("Exported " + view.getEnrollments().size() + " enrollments to " + enrollmentsFile);
 
         System.out.println("All data exported to " + directory);
     }
+
+    /**
+     * Concurrent variant of exportAllData. The files are written from one read model view
+     * on a pool of worker threads, so the export is a point-in-time snapshot however long
+     * it takes. A large enrollment table is split into shards that are written in parallel
+     * and concatenated into enrollments.csv.
+     */
+    public void exportAllData(Path directory, int workers) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
+        if (workers <= 0) throw new IllegalArgumentException("Worker count must be positive");
+
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+
+        ReadView view = readModel.snapshot();
+        List<ReadView.StudentRow> students = view.getStudents();
+        List<ReadView.CourseRow> courses = view.getCourses();
+        List<ReadView.EnrollmentRow> enrollments = view.getEnrollments();
+
+        Path enrollmentsFile = directory.resolve("enrollments.csv");
+        int shardCount = Math.max(1, Math.min(workers, enrollments.size() / MIN_ROWS_PER_SHARD));
+        List<Path> shards = new ArrayList<>(shardCount);
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            tasks.add(pool.submit(() -> { writeStudents(directory.resolve("students.csv"), students); return null; }));
+            tasks.add(pool.submit(() -> { writeCourses(directory.resolve("courses.csv"), courses); return null; }));
+
+            if (shardCount == 1) {
+                tasks.add(pool.submit(() -> {
+                    writeEnrollments(enrollmentsFile, enrollments, 0, enrollments.size(), true);
+                    return null;
+                }));
+            } else {
+                for (int i = 0; i < shardCount; i++) {
+                    Path shard = directory.resolve("enrollments.csv.part" + i);
+                    int from = (int) ((long) enrollments.size() * i / shardCount);
+                    int to = (int) ((long) enrollments.size() * (i + 1) / shardCount);
+                    boolean header = i == 0;
+                    shards.add(shard);
+                    tasks.add(pool.submit(() -> { writeEnrollments(shard, enrollments, from, to, header); return null; }));
+                }
+            }
+
+            for (Future<?> task : tasks) {
+                awaitExport(task);
+            }
+            if (!shards.isEmpty()) {
+                concatenate(shards, enrollmentsFile);
+            }
+        } finally {
+            pool.shutdownNow();
+            for (Path shard : shards) {
+                Files.deleteIfExists(shard);
+            }
+        }
+
+        System.out.println("Exported " + students.size() + " students, " + courses.size() + " courses and " +
+                enrollments.size() + " enrollments (" + shardCount + " shard(s))");
+        System.out.println("All data exported to " + directory);
+    }
+
+    private static void awaitExport(Future<?> task) throws IOException {
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Export failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // Appends the shards to the target in order, letting the OS copy file-to-file
+    private static void concatenate(List<Path> shards, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Path shard : shards) {
+                try (FileChannel in = FileChannel.open(shard, StandardOpenOption.READ)) {
+                    long size = in.size();
+                    for (long position = 0; position < size; ) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes students.csv, courses.csv and enrollments.csv containing only the rows whose
+     * updatedAt is at or after the given time, in the same format as exportAllData.
+     * Returns the number of rows written.
+     */
+    public int exportChangesSince(Path directory, LocalDateTime since) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
+        if (since == null) throw new IllegalArgumentException("Since cannot be null");
+
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+
+        ReadView view = readModel.snapshot();
+        List<ReadView.StudentRow> students = studentsChangedSince(view, since);
+        List<ReadView.CourseRow> courses = coursesChangedSince(view, since);
+        List<ReadView.EnrollmentRow> enrollments = enrollmentsChangedSince(view, since);
+
+        writeStudents(directory.resolve("students.csv"), students);
+        writeCourses(directory.resolve("courses.csv"), courses);
+        writeEnrollments(directory.resolve("enrollments.csv"), enrollments, 0, enrollments.size(), true);
+
+        return reportChanges(since, students, courses, enrollments);
+    }
+
+    // Archive variant of exportChangesSince, see exportAllData(ZipOutputStream)
+    public int exportChangesSince(ZipOutputStream archive, LocalDateTime since) throws IOException {
+        if (archive == null) throw new IllegalArgumentException("Archive cannot be null");
+        if (since == null) throw new IllegalArgumentException("Since cannot be null");
+
+        ReadView view = readModel.snapshot();
+        List<ReadView.StudentRow> students = studentsChangedSince(view, since);
+        List<ReadView.CourseRow> courses = coursesChangedSince(view, since);
+        List<ReadView.EnrollmentRow> enrollments = enrollmentsChangedSince(view, since);
+
+        writeAll(archive, students, courses, enrollments);
+        return reportChanges(since, students, courses, enrollments);
+    }
+
+    /**
+     * Writes students.csv, courses.csv and enrollments.csv as entries of the archive. The
+     * CSV is compressed as it is written, so no uncompressed copy is staged on disk. The
+     * caller owns the archive and picks its compression level.
+     */
+    public void exportAllData(ZipOutputStream archive) throws IOException {
+        if (archive == null) throw new IllegalArgumentException("Archive cannot be null");
+
+        ReadView view = readModel.snapshot();
+        List<ReadView.StudentRow> students = view.getStudents();
+        List<ReadView.CourseRow> courses = view.getCourses();
+        List<ReadView.EnrollmentRow> enrollments = view.getEnrollments();
+
+        writeAll(archive, students, courses, enrollments);
+        System.out.println("Exported " + students.size() + " students, " + courses.size() + " courses and " +
+                enrollments.size() + " enrollments to archive");
+    }
+
+    private void writeAll(ZipOutputStream archive, List<ReadView.StudentRow> students,
+                          List<ReadView.CourseRow> courses, List<ReadView.EnrollmentRow> enrollments)
+            throws IOException {
+        // The writers are flushed but not closed, since closing would close the archive
+        archive.putNextEntry(new ZipEntry("students.csv"));
+        CsvWriter writer = new CsvWriter(Channels.newChannel(archive));
+        writeStudents(writer, students);
+        writer.flush();
+        archive.closeEntry();
+
+        archive.putNextEntry(new ZipEntry("courses.csv"));
+        writer = new CsvWriter(Channels.newChannel(archive));
+        writeCourses(writer, courses);
+        writer.flush();
+        archive.closeEntry();
+
+        archive.putNextEntry(new ZipEntry("enrollments.csv"));
+        writer = new CsvWriter(Channels.newChannel(archive));
+        writeEnrollments(writer, enrollments, 0, enrollments.size(), true);
+        writer.flush();
+        archive.closeEntry();
+    }
+
+    private static List<ReadView.StudentRow> studentsChangedSince(ReadView view, LocalDateTime since) {
+        List<ReadView.StudentRow> changed = new ArrayList<>();
+        for (ReadView.StudentRow student : view.getStudents()) {
+            if (!student.getUpdatedAt().isBefore(since)) changed.add(student);
+        }
+        return changed;
+    }
+
+    private static List<ReadView.CourseRow> coursesChangedSince(ReadView view, LocalDateTime since) {
+        List<ReadView.CourseRow> changed = new ArrayList<>();
+        for (ReadView.CourseRow course : view.getCourses()) {
+            if (!course.getUpdatedAt().isBefore(since)) changed.add(course);
+        }
+        return changed;
+    }
+
+    private static List<ReadView.EnrollmentRow> enrollmentsChangedSince(ReadView view, LocalDateTime since) {
+        List<ReadView.EnrollmentRow> changed = new ArrayList<>();
+        for (ReadView.EnrollmentRow enrollment : view.getEnrollments()) {
+            if (!enrollment.getUpdatedAt().isBefore(since)) changed.add(enrollment);
+        }
+        return changed;
+    }
+
+    private static int reportChanges(LocalDateTime since, List<?> students, List<?> courses,
+                                     List<?> enrollments) {
+        System.out.println("Exported changes since " + since.format(TIMESTAMP_FORMAT) + ": " +
+                students.size() + " students, " + courses.size() + " courses, " +
+                enrollments.size() + " enrollments");
+        return students.size() + courses.size() + enrollments.size();
+    }
+
+    // Restores a directory written by exportAllData; enrollments go last since they refer to the others
+    public void importAllData(Path directory) throws IOException {
+        if (directory == null) throw new IllegalArgumentException("Directory cannot be null");
+
+        importStudentsFromCSV(directory.resolve("students.csv"));
+        importCoursesFromCSV(directory.resolve("courses.csv"));
+        importEnrollmentsFromCSV(directory.resolve("enrollments.csv"));
+
+        System.out.println("All data imported from " + directory);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package edu.ccrm.io;
+
+/**
+ * Counters for a single import run: rows read, rows accepted and rejected, and
+ * the elapsed time they were processed in.
+ */
+public class ImportReport {
+    private final String source;
+    private final long startNanos;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsRejected;
+    private long elapsedNanos;
+
+    public ImportReport(String source) {
+        this.source = source;
+        this.startNanos = System.nanoTime();
+    }
+
+    public void recordImported() {
+        rowsProcessed++;
+        rowsImported++;
+    }
+
+    public void recordRejected() {
+        rowsProcessed++;
+        rowsRejected++;
+    }
+
+    public ImportReport finish() {
+        this.elapsedNanos = System.nanoTime() - startNanos;
+        return this;
+    }
+
+    public String getSource() { return source; }
+    public long getRowsProcessed() { return rowsProcessed; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsRejected() { return rowsRejected; }
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rowsProcessed * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows processed, %d imported, %d rejected in %d ms (%.0f rows/s) from %s",
+                rowsProcessed, rowsImported, rowsRejected, getElapsedMillis(), getRowsPerSecond(), source);
+    }
+}
\ No newline at end of file
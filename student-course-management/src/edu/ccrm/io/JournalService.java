@@ -0,0 +1,782 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.service.BatchResult;
+import edu.ccrm.service.CourseListener;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentListener;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentListener;
+import edu.ccrm.service.StudentService;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of mutations since the last snapshot. Registered as a
+ * listener on the services, it records every add, update, deactivation, enrollment,
+ * unenrollment and grade, and a mutation returns only once its record is on disk.
+ *
+ * Records are framed as length, CRC32 and payload. Writes are group-committed: records
+ * appended while an fsync is in progress are written and forced together by the next
+ * committing thread, so concurrent mutations share one fsync. Bulk operations run
+ * through inBatch commit once at the end.
+ *
+ * Records are written after the change has been applied, so a write error cannot undo
+ * it. The error is reported once and journaling stops. sync, checkpoint and close then
+ * throw it, until a snapshot of the live services is saved and reset is called.
+ *
+ * On startup replay applies the journal on top of the loaded snapshot. Replay is
+ * idempotent, and a torn or corrupt tail left by a crash is truncated.
+ *
+ * Each record ends with the timestamps of the entity it changes, which replay restores
+ * as SnapshotService does, so snapshots built from the journal keep them. Records
+ * written before the timestamps were added still replay, stamped with the replay time.
+ */
+public class JournalService implements StudentListener, CourseListener, EnrollmentListener, Closeable {
+    private static final byte STUDENT_ADDED = 1;
+    private static final byte STUDENT_UPDATED = 2;
+    private static final byte STUDENT_DEACTIVATED = 3;
+    private static final byte COURSE_ADDED = 4;
+    private static final byte COURSE_UPDATED = 5;
+    private static final byte COURSE_DEACTIVATED = 6;
+    private static final byte ENROLLED = 7;
+    private static final byte UNENROLLED = 8;
+    private static final byte GRADE_RECORDED = 9;
+
+    private static final int HEADER_SIZE = 8; // Payload length and CRC32
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    @FunctionalInterface
+    public interface Batch {
+        void run() throws IOException;
+    }
+
+    private final Path filePath;
+    private FileChannel channel; // Replaced when discardBefore compacts the journal
+
+    // Guards the buffers and sequence numbers below
+    private final Object commitLock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean committing;
+    private IOException failure;
+    private boolean failureReported;
+
+    // Depth of inBatch calls on the current thread; records are not committed individually inside one
+    private final ThreadLocal<int[]> batchDepth = ThreadLocal.withInitial(() -> new int[1]);
+
+    public JournalService(Path filePath) throws IOException {
+        if (filePath == null) throw new IllegalArgumentException("File path cannot be null");
+
+        this.filePath = filePath;
+        this.channel = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    /**
+     * Applies the journal to the services and returns the number of records replayed.
+     * Must run before the journal is registered as a listener, or replayed mutations
+     * would be journaled again.
+     */
+    public int replay(StudentService studentService, CourseService courseService,
+                      EnrollmentService enrollmentService) throws IOException {
+        long start = System.nanoTime();
+        long size = channel.size();
+
+        int[] count = new int[1];
+        long validEnd = applyRecords(new Replay(studentService, courseService, enrollmentService, false), size, count);
+
+        // Anything after the last intact record was being written when the process died
+        if (validEnd < size) {
+            System.err.println("Journal " + filePath + ": discarding " + (size - validEnd) + " bytes of incomplete records");
+            channel.truncate(validEnd);
+            channel.force(false);
+        }
+        channel.position(validEnd);
+
+        System.out.println("Replayed " + count[0] + " journal records from " + filePath +
+                " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return count[0];
+    }
+
+    /**
+     * Applies the records before the given offset, as returned by checkpoint, to services
+     * other than the live ones. Used to build a snapshot while the journal keeps growing,
+     * so skipped records are not reported.
+     */
+    public int replayPrefix(StudentService studentService, CourseService courseService,
+                            EnrollmentService enrollmentService, long end) throws IOException {
+        int[] count = new int[1];
+        long validEnd = applyRecords(new Replay(studentService, courseService, enrollmentService, true), end, count);
+        if (validEnd < end) throw new IOException("Corrupt journal record at offset " + validEnd + " in " + filePath);
+        return count[0];
+    }
+
+    /**
+     * Makes everything appended so far durable and returns the journal offset it ends at.
+     * Records appended later start at or after that offset.
+     */
+    public long checkpoint() throws IOException {
+        sync();
+        synchronized (commitLock) {
+            awaitIdle();
+            return channel.size();
+        }
+    }
+
+    /**
+     * Drops the records before the given offset once a snapshot covering them has been
+     * saved. The remaining records are copied to a new file that atomically replaces the
+     * journal; appends wait only for that copy.
+     */
+    public void discardBefore(long offset) throws IOException {
+        synchronized (commitLock) {
+            awaitIdle();
+            long size = channel.size();
+            if (offset <= 0) return;
+            if (offset > size) throw new IllegalArgumentException("Offset " + offset + " is past the end of the journal");
+
+            Path temp = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+            try (FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                for (long position = offset; position < size; ) {
+                    position += channel.transferTo(position, size - position, target);
+                }
+                target.force(false);
+            }
+            Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            channel.close();
+            channel = FileChannel.open(filePath, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+        }
+    }
+
+    /**
+     * Runs a bulk operation, such as an import, with a single commit at the end instead
+     * of one per record.
+     */
+    public void inBatch(Batch batch) throws IOException {
+        int[] depth = batchDepth.get();
+        depth[0]++;
+        try {
+            batch.run();
+        } finally {
+            depth[0]--;
+        }
+        if (depth[0] == 0) {
+            sync();
+        }
+    }
+
+    // Makes every record appended so far durable
+    public void sync() throws IOException {
+        long seq;
+        synchronized (commitLock) {
+            seq = appendedSeq;
+        }
+        commit(seq);
+    }
+
+    /**
+     * Empties the journal once a snapshot covering all of it has been saved. This also
+     * resumes journaling after a write error, since the snapshot holds everything the
+     * journal missed.
+     */
+    public void reset() throws IOException {
+        synchronized (commitLock) {
+            awaitIdle();
+            pending.clear();
+            durableSeq = appendedSeq;
+            failure = null;
+            failureReported = false;
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            synchronized (commitLock) {
+                channel.close();
+            }
+        }
+    }
+
+    @Override
+    public void onStudentAdded(Student student) {
+        record(writeStudent(new Output(STUDENT_ADDED), student));
+    }
+
+    @Override
+    public void onStudentUpdated(Student student) {
+        record(writeStudent(new Output(STUDENT_UPDATED), student));
+    }
+
+    @Override
+    public void onStudentDeactivated(Student student) {
+        record(new Output(STUDENT_DEACTIVATED)
+                .writeString(student.getId())
+                .writeDateTime(student.getUpdatedAt()));
+    }
+
+    @Override
+    public void onCourseAdded(Course course) {
+        record(writeCourse(new Output(COURSE_ADDED), course));
+    }
+
+    @Override
+    public void onCourseUpdated(Course course) {
+        record(writeCourse(new Output(COURSE_UPDATED), course));
+    }
+
+    @Override
+    public void onCourseDeactivated(Course course) {
+        record(new Output(COURSE_DEACTIVATED)
+                .writeString(course.getCode().toString())
+                .writeDateTime(course.getUpdatedAt()));
+    }
+
+    @Override
+    public void onEnrolled(Enrollment enrollment) {
+        record(writeEnrollment(new Output(ENROLLED), enrollment));
+    }
+
+    // The record carries the active flag, so replay restores the enrollment inactive too
+    @Override
+    public void onRestoredInactive(Enrollment enrollment) {
+        record(writeEnrollment(new Output(ENROLLED), enrollment));
+    }
+
+    @Override
+    public void onUnenrolled(Enrollment enrollment) {
+        record(new Output(UNENROLLED)
+                .writeString(enrollment.getId())
+                .writeDateTime(enrollment.getUpdatedAt()));
+    }
+
+    @Override
+    public void onGradeRecorded(Enrollment enrollment, Grade previous) {
+        record(new Output(GRADE_RECORDED)
+                .writeString(enrollment.getId())
+                .writeByte(enrollment.getGrade() != null ? enrollment.getGrade().ordinal() : -1)
+                .writeDateTime(enrollment.getUpdatedAt()));
+    }
+
+    private static Output writeStudent(Output out, Student student) {
+        return out.writeString(student.getId())
+                .writeString(student.getRegNo())
+                .writeString(student.getFullName().getFirstName())
+                .writeString(student.getFullName().getLastName())
+                .writeString(student.getEmail())
+                .writeByte(student.getStatus().ordinal())
+                .writeBoolean(student.isActive())
+                .writeDateTime(student.getCreatedAt())
+                .writeDateTime(student.getUpdatedAt());
+    }
+
+    private static Output writeEnrollment(Output out, Enrollment enrollment) {
+        return out.writeString(enrollment.getId())
+                .writeString(enrollment.getStudent().getId())
+                .writeString(enrollment.getCourse().getCode().getPrefix())
+                .writeString(enrollment.getCourse().getCode().getNumber())
+                .writeDateTime(enrollment.getEnrollmentDate())
+                .writeByte(enrollment.getGrade() != null ? enrollment.getGrade().ordinal() : -1)
+                .writeBoolean(enrollment.isActive())
+                .writeDateTime(enrollment.getUpdatedAt());
+    }
+
+    private static Output writeCourse(Output out, Course course) {
+        out.writeString(course.getCode().getPrefix())
+                .writeString(course.getCode().getNumber())
+                .writeString(course.getTitle())
+                .writeInt(course.getCredits())
+                .writeString(course.getDepartment())
+                .writeByte(course.getSemester().ordinal())
+                .writeBoolean(course.isActive())
+                .writeInt(course.getCapacity());
+
+        // The instructor is written inline; replay reuses an existing instructor with the same ID
+        Instructor instructor = course.getInstructor();
+        out.writeBoolean(instructor != null);
+        if (instructor != null) {
+            out.writeString(instructor.getId())
+                    .writeString(instructor.getFullName().getFirstName())
+                    .writeString(instructor.getFullName().getLastName())
+                    .writeString(instructor.getEmail())
+                    .writeString(instructor.getEmployeeId())
+                    .writeString(instructor.getDepartment());
+        }
+        return out.writeDateTime(course.getUpdatedAt());
+    }
+
+    // Appends the record and, outside a batch, waits until it is durable. Runs from the
+    // services' listener loops, so errors are reported rather than thrown.
+    private void record(Output out) {
+        try {
+            long seq = append(out);
+            if (batchDepth.get()[0] == 0) {
+                commit(seq);
+            }
+        } catch (IOException e) {
+            reportFailure(e);
+        }
+    }
+
+    private void reportFailure(IOException e) {
+        synchronized (commitLock) {
+            if (failure == null) failure = e;
+            if (failureReported) return;
+            failureReported = true;
+        }
+        System.err.println("Error writing journal " + filePath + ": " + e.getMessage() +
+                "; journaling has stopped, so later changes survive only through the snapshot saved on exit");
+    }
+
+    private long append(Output out) throws IOException {
+        ByteBuffer payload = out.buffer;
+        payload.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload.array(), 0, payload.limit());
+
+        synchronized (commitLock) {
+            if (failure != null) throw failure;
+
+            if (pending.remaining() < HEADER_SIZE + payload.limit()) {
+                pending = grow(pending, HEADER_SIZE + payload.limit());
+            }
+            pending.putInt(payload.limit());
+            pending.putInt((int) crc.getValue());
+            pending.put(payload);
+            return ++appendedSeq;
+        }
+    }
+
+    // Applies the intact records before end and returns the offset just past the last one
+    private long applyRecords(Replay replay, long end, int[] count) throws IOException {
+        if (end > Integer.MAX_VALUE) throw new IOException("Journal too large to replay: " + filePath);
+
+        ByteBuffer file = ByteBuffer.allocate((int) end);
+        while (file.hasRemaining() && channel.read(file, file.position()) >= 0) {
+            // Keep reading until the buffer is full
+        }
+        file.flip();
+
+        CRC32 crc = new CRC32();
+        long validEnd = 0;
+        while (file.remaining() >= HEADER_SIZE) {
+            int length = file.getInt();
+            int checksum = file.getInt();
+            if (length <= 0 || length > file.remaining()) break;
+
+            byte[] payload = new byte[length];
+            file.get(payload);
+            crc.reset();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) break;
+
+            replay.apply(new Input(ByteBuffer.wrap(payload)));
+            validEnd = file.position();
+            count[0]++;
+        }
+        return validEnd;
+    }
+
+    /**
+     * Waits until the record with the given sequence number is durable. The first thread
+     * to find no commit in progress becomes the leader: it takes everything appended so
+     * far, writes and forces it outside the lock, then wakes the waiting threads, whose
+     * records are usually covered by the same fsync.
+     */
+    private void commit(long seq) throws IOException {
+        ByteBuffer batch;
+        long batchSeq;
+        FileChannel target;
+        synchronized (commitLock) {
+            while (committing && durableSeq < seq) {
+                waitForCommit();
+            }
+            if (durableSeq >= seq) return;
+            if (failure != null) throw failure;
+
+            committing = true;
+            batch = pending;
+            pending = writing;
+            writing = batch;
+            batchSeq = appendedSeq;
+            target = channel;
+        }
+
+        IOException error = null;
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                target.write(batch);
+            }
+            target.force(false);
+        } catch (IOException e) {
+            error = e;
+        }
+
+        synchronized (commitLock) {
+            batch.clear();
+            committing = false;
+            if (error != null) {
+                // The journal no longer matches memory, so later mutations fail too
+                failure = error;
+            } else {
+                durableSeq = batchSeq;
+            }
+            commitLock.notifyAll();
+        }
+        if (error != null) throw error;
+    }
+
+    // Must be called while holding commitLock
+    private void awaitIdle() throws IOException {
+        while (committing) {
+            waitForCommit();
+        }
+    }
+
+    private void waitForCommit() throws IOException {
+        try {
+            commitLock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for journal commit", e);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < needed) capacity *= 2;
+
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    // Applies decoded records to the services, skipping changes that are already present
+    private static final class Replay {
+        private final StudentService studentService;
+        private final CourseService courseService;
+        private final EnrollmentService enrollmentService;
+        private final StudentStatus[] statuses = StudentStatus.values();
+        private final Semester[] semesters = Semester.values();
+        private final Grade[] grades = Grade.values();
+        private final boolean quiet;
+        private Map<String, Instructor> instructorsById;
+
+        private Replay(StudentService studentService, CourseService courseService,
+                       EnrollmentService enrollmentService, boolean quiet) {
+            this.studentService = studentService;
+            this.courseService = courseService;
+            this.enrollmentService = enrollmentService;
+            this.quiet = quiet;
+        }
+
+        private void reportSkipped(String message) {
+            if (!quiet) System.err.println(message);
+        }
+
+        private void apply(Input in) throws IOException {
+            byte type = (byte) in.readByte();
+            switch (type) {
+                case STUDENT_ADDED:
+                case STUDENT_UPDATED:
+                    applyStudent(in);
+                    break;
+                case STUDENT_DEACTIVATED: {
+                    String id = in.readString();
+                    LocalDateTime updatedAt = readTimestamp(in);
+                    if (studentService.deactivateStudent(id) && updatedAt != null) {
+                        Student student = studentService.getStudent(id);
+                        student.restoreTimestamps(student.getCreatedAt(), updatedAt);
+                    }
+                    break;
+                }
+                case COURSE_ADDED:
+                case COURSE_UPDATED:
+                    applyCourse(in);
+                    break;
+                case COURSE_DEACTIVATED: {
+                    String code = in.readString();
+                    LocalDateTime updatedAt = readTimestamp(in);
+                    if (courseService.deactivateCourse(code) && updatedAt != null) {
+                        courseService.getCourse(code).restoreUpdatedAt(updatedAt);
+                    }
+                    break;
+                }
+                case ENROLLED:
+                    applyEnrollment(in);
+                    break;
+                case UNENROLLED: {
+                    Enrollment enrollment = enrollmentService.getEnrollment(in.readString());
+                    LocalDateTime updatedAt = readTimestamp(in);
+                    if (enrollment != null && enrollment.isActive()) {
+                        enrollmentService.unenrollStudent(enrollment.getId());
+                        if (updatedAt != null) enrollment.restoreUpdatedAt(updatedAt);
+                    }
+                    break;
+                }
+                case GRADE_RECORDED: {
+                    Enrollment enrollment = enrollmentService.getEnrollment(in.readString());
+                    int grade = in.readByte();
+                    LocalDateTime updatedAt = readTimestamp(in);
+                    if (enrollment != null && grade >= 0 && enrollment.getGrade() != grades[grade]) {
+                        enrollmentService.recordGrade(enrollment.getId(), grades[grade]);
+                        if (updatedAt != null) enrollment.restoreUpdatedAt(updatedAt);
+                    }
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown journal record type " + type);
+            }
+        }
+
+        private void applyStudent(Input in) throws IOException {
+            String id = in.readString();
+            String regNo = in.readString();
+            Name name = new Name(in.readString(), in.readString());
+            String email = in.readString();
+            StudentStatus status = statuses[in.readByte()];
+            boolean active = in.readBoolean();
+            LocalDateTime createdAt = readTimestamp(in);
+            LocalDateTime updatedAt = readTimestamp(in);
+
+            Student student = studentService.getStudent(id);
+            if (student == null) {
+                student = new Student(id, name, email, regNo);
+                student.setStatus(status);
+                if (!active) student.setActive(false);
+                if (updatedAt != null) student.restoreTimestamps(createdAt, updatedAt);
+                studentService.restoreStudents(Collections.singletonList(student));
+            } else {
+                student.setRegNo(regNo);
+                student.setEmail(email);
+                student.setStatus(status);
+                student.setActive(active);
+                studentService.updateStudent(student);
+                if (updatedAt != null) student.restoreTimestamps(createdAt, updatedAt);
+            }
+        }
+
+        private void applyCourse(Input in) throws IOException {
+            CourseCode code = new CourseCode(in.readString(), in.readString());
+            String title = in.readString();
+            int credits = in.readInt();
+            String department = in.readString();
+            Semester semester = semesters[in.readByte()];
+            boolean active = in.readBoolean();
+            int capacity = in.readInt();
+            Instructor instructor = in.readBoolean() ? readInstructor(in) : null;
+            LocalDateTime updatedAt = readTimestamp(in);
+
+            Course course = courseService.getCourse(code);
+            if (course == null) {
+                course = new Course.Builder(code)
+                        .title(title)
+                        .credits(credits)
+                        .department(department)
+                        .semester(semester)
+                        .active(active)
+                        .capacity(capacity)
+                        .instructor(instructor)
+                        .build();
+                if (instructor != null) instructor.assignCourse(course);
+                if (updatedAt != null) course.restoreUpdatedAt(updatedAt);
+                courseService.addCourses(Collections.singletonList(course));
+            } else {
+                course.setTitle(title);
+                course.setCredits(credits);
+                course.setDepartment(department);
+                course.setSemester(semester);
+                course.setActive(active);
+                course.setCapacity(capacity);
+                if (course.getInstructor() != instructor) {
+                    if (course.getInstructor() != null) course.getInstructor().removeCourse(course);
+                    course.setInstructor(instructor);
+                }
+                courseService.updateCourse(course);
+                if (updatedAt != null) course.restoreUpdatedAt(updatedAt);
+            }
+        }
+
+        // Timestamps end each record; records journaled before they were added have none
+        private static LocalDateTime readTimestamp(Input in) throws IOException {
+            return in.hasRemaining() ? in.readDateTime() : null;
+        }
+
+        private Instructor readInstructor(Input in) throws IOException {
+            String id = in.readString();
+            Name name = new Name(in.readString(), in.readString());
+            String email = in.readString();
+            String employeeId = in.readString();
+            String department = in.readString();
+
+            // Courses taught by the same instructor share one object, as they do when loaded
+            if (instructorsById == null) {
+                instructorsById = new HashMap<>();
+                for (Course course : courseService.viewAllCourses()) {
+                    if (course.getInstructor() != null) {
+                        instructorsById.putIfAbsent(course.getInstructor().getId(), course.getInstructor());
+                    }
+                }
+            }
+            Instructor instructor = instructorsById.get(id);
+            if (instructor == null) {
+                instructor = new Instructor(id, name, email, employeeId, department);
+                instructorsById.put(id, instructor);
+            } else {
+                instructor.setEmail(email);
+                instructor.setEmployeeId(employeeId);
+                instructor.setDepartment(department);
+            }
+            return instructor;
+        }
+
+        private void applyEnrollment(Input in) throws IOException {
+            String id = in.readString();
+            String studentId = in.readString();
+            CourseCode code = new CourseCode(in.readString(), in.readString());
+            LocalDateTime enrollmentDate = in.readDateTime();
+            int grade = in.readByte();
+            boolean active = in.readBoolean();
+            LocalDateTime updatedAt = readTimestamp(in);
+
+            if (enrollmentService.getEnrollment(id) != null) return;
+
+            Student student = studentService.getStudent(studentId);
+            Course course = courseService.getCourse(code);
+            if (student == null || course == null) {
+                reportSkipped("Journal: skipping enrollment " + id + " of unknown student or course");
+                return;
+            }
+
+            Enrollment enrollment = new Enrollment(id, student, course, enrollmentDate);
+            if (grade >= 0) enrollment.setGrade(grades[grade]);
+            if (!active) enrollment.setActive(false);
+            if (updatedAt != null) enrollment.restoreUpdatedAt(updatedAt);
+            BatchResult<Enrollment> result = enrollmentService.restoreEnrollments(Collections.singletonList(enrollment));
+            if (result.getRejectedCount() > 0) {
+                reportSkipped("Journal: skipping enrollment " + id + ": " + result.getOutcomes().get(0).getMessage());
+            }
+        }
+    }
+
+    // Builder of one record's payload
+    private static final class Output {
+        private ByteBuffer buffer = ByteBuffer.allocate(128);
+
+        private Output(byte type) {
+            buffer.put(type);
+        }
+
+        private Output writeInt(int value) {
+            ensureCapacity(4);
+            buffer.putInt(value);
+            return this;
+        }
+
+        private Output writeByte(int value) {
+            ensureCapacity(1);
+            buffer.put((byte) value);
+            return this;
+        }
+
+        private Output writeBoolean(boolean value) {
+            return writeByte(value ? 1 : 0);
+        }
+
+        private Output writeDateTime(LocalDateTime value) {
+            ensureCapacity(12);
+            buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(value.getNano());
+            return this;
+        }
+
+        // Length in bytes followed by UTF-8 bytes; -1 for null
+        private Output writeString(String value) {
+            if (value == null) return writeInt(-1);
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            ensureCapacity(bytes.length);
+            buffer.put(bytes);
+            return this;
+        }
+
+        private void ensureCapacity(int bytes) {
+            if (buffer.remaining() < bytes) buffer = grow(buffer, bytes);
+        }
+    }
+
+    // Reader of one record's payload
+    private static final class Input {
+        private final ByteBuffer buffer;
+
+        private Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private int readInt() throws IOException {
+            checkRemaining(4);
+            return buffer.getInt();
+        }
+
+        private int readByte() throws IOException {
+            checkRemaining(1);
+            return buffer.get();
+        }
+
+        private boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        private LocalDateTime readDateTime() throws IOException {
+            checkRemaining(12);
+            long seconds = buffer.getLong();
+            return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+        }
+
+        private String readString() throws IOException {
+            int length = readInt();
+            if (length < 0) return null;
+            checkRemaining(length);
+
+            String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+
+        private boolean hasRemaining() {
+            return buffer.hasRemaining();
+        }
+
+        private void checkRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) throw new IOException("Corrupt journal record");
+        }
+    }
+}
\ No newline at end of file
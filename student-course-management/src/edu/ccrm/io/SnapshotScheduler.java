@@ -0,0 +1,149 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.StudentService;
+import edu.ccrm.service.StudentServiceImpl;
+import edu.ccrm.util.Validator;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes snapshots in the background on the schedule set in AppConfig. A snapshot is
+ * built by loading the current snapshot into private services and replaying the journal
+ * up to a checkpoint, so the live services are never read or locked and writers carry
+ * on undisturbed. Once the new snapshot is saved, the journal records it covers are
+ * discarded.
+ *
+ * The snapshots it replaces are kept as ccrm.snapshot.1, .2 and so on, newest first,
+ * up to the configured retention count including the current one.
+ *
+ * It prints nothing, since it runs alongside the interactive prompt. The outcome of the
+ * last snapshot is kept for the CLI to query and report.
+ */
+public class SnapshotScheduler implements Closeable {
+    private final JournalService journal;
+    private final AppConfig config;
+    private final ScheduledExecutorService executor;
+    private volatile LocalDateTime lastSnapshotTime;
+    private volatile Exception lastFailure; // Cleared by the next successful snapshot
+
+    public SnapshotScheduler(JournalService journal, AppConfig config) {
+        if (journal == null) throw new IllegalArgumentException("Journal cannot be null");
+
+        this.journal = journal;
+        this.config = config;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "ccrm-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Schedules snapshots every snapshotIntervalMinutes; an interval of 0 leaves them off
+    public void start() {
+        int interval = config.getSnapshotIntervalMinutes();
+        if (interval == 0) return;
+
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                takeSnapshot();
+            } catch (IOException | RuntimeException e) {
+                // Recorded rather than thrown, which would cancel the schedule
+                lastFailure = e;
+            }
+        }, interval, interval, TimeUnit.MINUTES);
+    }
+
+    // When the last background snapshot was saved, or null if none has been yet
+    public LocalDateTime getLastSnapshotTime() {
+        return lastSnapshotTime;
+    }
+
+    // Why the last scheduled snapshot failed, or null if it succeeded
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    // Takes a snapshot now on the background thread; the result is false if the journal was empty
+    public Future<Boolean> snapshotNow() {
+        return executor.submit(this::takeSnapshot);
+    }
+
+    /**
+     * Stops the schedule and waits for a snapshot in progress, so it cannot overwrite
+     * one saved afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        // Not shutdownNow: interrupting a task would close the journal's channel under it
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                System.out.println("Waiting for background snapshot to finish...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while stopping background snapshots", e);
+        }
+    }
+
+    private boolean takeSnapshot() throws IOException {
+        long end = journal.checkpoint();
+        if (end == 0) return false;
+
+        StudentService students = new StudentServiceImpl(new Validator());
+        CourseService courses = new CourseServiceImpl();
+        EnrollmentService enrollments = new EnrollmentServiceImpl();
+        SnapshotService snapshots = new SnapshotService(students, courses, enrollments);
+
+        Path snapshotPath = config.getSnapshotFilePath();
+        if (Files.exists(snapshotPath)) {
+            snapshots.loadSnapshot(snapshotPath);
+        }
+        journal.replayPrefix(students, courses, enrollments, end);
+
+        rotate(snapshotPath);
+        snapshots.saveSnapshot(snapshotPath);
+
+        // A crash before this point replays records the snapshot already has, which is harmless
+        journal.discardBefore(end);
+        lastSnapshotTime = LocalDateTime.now();
+        lastFailure = null;
+        return true;
+    }
+
+    private void rotate(Path snapshotPath) throws IOException {
+        int retention = config.getSnapshotRetentionCount();
+
+        // Drop generations beyond the retention count, e.g. after it was lowered
+        for (int i = retention; Files.exists(generation(snapshotPath, i)); i++) {
+            Files.delete(generation(snapshotPath, i));
+        }
+        if (retention == 1 || !Files.exists(snapshotPath)) return;
+
+        for (int i = retention - 1; i > 1; i--) {
+            Path older = generation(snapshotPath, i - 1);
+            if (Files.exists(older)) {
+                Files.move(older, generation(snapshotPath, i), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // Copied rather than moved so there is always a current snapshot to start from
+        Files.copy(snapshotPath, generation(snapshotPath, 1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static Path generation(Path snapshotPath, int number) {
+        return snapshotPath.resolveSibling(snapshotPath.getFileName() + "." + number);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,354 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.*;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.service.StudentService;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of the in-memory services, for fast restarts. Strings are
+ * length-prefixed UTF-8, enums are stored as ordinals and references between records
+ * (course to instructor, enrollment to student and course) as int indexes into the
+ * earlier sections, so loading needs no text parsing or lookups by key.
+ *
+ * Layout: magic, version, then the student, instructor, course and enrollment sections,
+ * each a record count followed by the records. The file is read into one heap buffer; it
+ * is not memory-mapped, since a live mapping keeps Windows from replacing the file on the
+ * next save.
+ * Version 2 adds the entities' createdAt and updatedAt; version 1 files still load, with
+ * those set to the load time.
+ */
+public class SnapshotService {
+    private static final int MAGIC = 0x43435253; // "CCRS"
+    private static final int VERSION = 2;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+
+    public SnapshotService(StudentService studentService, CourseService courseService,
+                           EnrollmentService enrollmentService) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and moves it into place, so a crash while
+     * saving leaves the previous snapshot intact. Returns the number of records written.
+     * Prints nothing, as it also runs on the background snapshot thread.
+     */
+    public int saveSnapshot(Path filePath) throws IOException {
+        if (filePath == null) throw new IllegalArgumentException("File path cannot be null");
+
+        int written;
+        List<Student> students = studentService.getAllStudents();
+        List<Course> courses = courseService.getAllCourses();
+        List<Enrollment> enrollments = enrollmentService.getAllEnrollments();
+
+        Path temp = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (Output out = new Output(FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            Map<Student, Integer> studentRefs = new IdentityHashMap<>(students.size() * 2);
+            out.writeInt(students.size());
+            for (Student student : students) {
+                studentRefs.put(student, studentRefs.size());
+                out.writeString(student.getId());
+                out.writeString(student.getRegNo());
+                out.writeString(student.getFullName().getFirstName());
+                out.writeString(student.getFullName().getLastName());
+                out.writeString(student.getEmail());
+                out.writeByte(student.getStatus().ordinal());
+                out.writeBoolean(student.isActive());
+                out.writeDateTime(student.getCreatedAt());
+                out.writeDateTime(student.getUpdatedAt());
+            }
+
+            // Instructors are only reachable through their courses
+            Map<Instructor, Integer> instructorRefs = new IdentityHashMap<>();
+            for (Course course : courses) {
+                if (course.getInstructor() != null && !instructorRefs.containsKey(course.getInstructor())) {
+                    instructorRefs.put(course.getInstructor(), instructorRefs.size());
+                }
+            }
+            out.writeInt(instructorRefs.size());
+            for (Instructor instructor : instructorRefs.keySet()) {
+                out.writeString(instructor.getId());
+                out.writeString(instructor.getFullName().getFirstName());
+                out.writeString(instructor.getFullName().getLastName());
+                out.writeString(instructor.getEmail());
+                out.writeString(instructor.getEmployeeId());
+                out.writeString(instructor.getDepartment());
+            }
+
+            Map<Course, Integer> courseRefs = new IdentityHashMap<>(courses.size() * 2);
+            out.writeInt(courses.size());
+            for (Course course : courses) {
+                courseRefs.put(course, courseRefs.size());
+                out.writeString(course.getCode().getPrefix());
+                out.writeString(course.getCode().getNumber());
+                out.writeString(course.getTitle());
+                out.writeInt(course.getCredits());
+                out.writeString(course.getDepartment());
+                out.writeByte(course.getSemester().ordinal());
+                out.writeBoolean(course.isActive());
+                out.writeInt(course.getInstructor() != null ? instructorRefs.get(course.getInstructor()) : -1);
+                out.writeInt(course.getCapacity());
+                out.writeDateTime(course.getUpdatedAt());
+            }
+
+            // Enrollments whose student or course is not in the snapshot are skipped
+            int count = 0;
+            for (Enrollment enrollment : enrollments) {
+                if (studentRefs.containsKey(enrollment.getStudent()) && courseRefs.containsKey(enrollment.getCourse())) {
+                    count++;
+                }
+            }
+            out.writeInt(count);
+            written = students.size() + courses.size() + count;
+            for (Enrollment enrollment : enrollments) {
+                Integer studentRef = studentRefs.get(enrollment.getStudent());
+                Integer courseRef = courseRefs.get(enrollment.getCourse());
+                if (studentRef == null || courseRef == null) continue;
+
+                out.writeString(enrollment.getId());
+                out.writeInt(studentRef);
+                out.writeInt(courseRef);
+                out.writeDateTime(enrollment.getEnrollmentDate());
+                out.writeByte(enrollment.getGrade() != null ? enrollment.getGrade().ordinal() : -1);
+                out.writeBoolean(enrollment.isActive());
+                out.writeDateTime(enrollment.getUpdatedAt());
+            }
+        }
+        Files.move(temp, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return written;
+    }
+
+    /**
+     * Loads a snapshot into the services, which are expected to be empty. Returns the
+     * number of records loaded; records that clash with existing ones are skipped. Prints
+     * nothing, like saveSnapshot.
+     */
+    public int loadSnapshot(Path filePath) throws IOException {
+        if (filePath == null || !Files.exists(filePath)) {
+            throw new IOException("File does not exist: " + filePath);
+        }
+
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot too large to load: " + filePath);
+            }
+            ByteBuffer contents = ByteBuffer.allocate((int) channel.size());
+            while (contents.hasRemaining() && channel.read(contents) >= 0) {
+                // Keep reading until the buffer is full
+            }
+            contents.flip();
+            Input in = new Input(contents);
+
+            if (in.readInt() != MAGIC) throw new IOException("Not a snapshot file: " + filePath);
+            int version = in.readInt();
+            if (version != 1 && version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            boolean timestamps = version >= 2;
+
+            StudentStatus[] statuses = StudentStatus.values();
+            Semester[] semesters = Semester.values();
+            Grade[] grades = Grade.values();
+
+            Student[] students = new Student[in.readCount()];
+            for (int i = 0; i < students.length; i++) {
+                String id = in.readString();
+                String regNo = in.readString();
+                Name name = new Name(in.readString(), in.readString());
+                Student student = new Student(id, name, in.readString(), regNo);
+                student.setStatus(statuses[in.readByte()]);
+                if (!in.readBoolean()) student.setActive(false);
+                if (timestamps) student.restoreTimestamps(in.readDateTime(), in.readDateTime());
+                students[i] = student;
+            }
+
+            Instructor[] instructors = new Instructor[in.readCount()];
+            for (int i = 0; i < instructors.length; i++) {
+                String id = in.readString();
+                Name name = new Name(in.readString(), in.readString());
+                instructors[i] = new Instructor(id, name, in.readString(), in.readString(), in.readString());
+            }
+
+            Course[] courses = new Course[in.readCount()];
+            for (int i = 0; i < courses.length; i++) {
+                CourseCode code = new CourseCode(in.readString(), in.readString());
+                Course.Builder builder = new Course.Builder(code)
+                        .title(in.readString())
+                        .credits(in.readInt())
+                        .department(in.readString())
+                        .semester(semesters[in.readByte()])
+                        .active(in.readBoolean());
+                int instructorRef = in.readInt();
+                builder.capacity(in.readInt());
+                if (instructorRef >= 0) builder.instructor(instructors[instructorRef]);
+
+                courses[i] = builder.build();
+                if (timestamps) courses[i].restoreUpdatedAt(in.readDateTime());
+                if (instructorRef >= 0) instructors[instructorRef].assignCourse(courses[i]);
+            }
+
+            int enrollmentCount = in.readCount();
+            List<Enrollment> enrollments = new ArrayList<>(enrollmentCount);
+            for (int i = 0; i < enrollmentCount; i++) {
+                String id = in.readString();
+                Student student = students[in.readInt()];
+                Course course = courses[in.readInt()];
+                Enrollment enrollment = new Enrollment(id, student, course, in.readDateTime());
+                int grade = in.readByte();
+                if (grade >= 0) enrollment.setGrade(grades[grade]);
+                if (!in.readBoolean()) enrollment.setActive(false);
+                if (timestamps) enrollment.restoreUpdatedAt(in.readDateTime());
+                enrollments.add(enrollment);
+            }
+
+            int loaded = studentService.restoreStudents(Arrays.asList(students)).getAcceptedCount()
+                    + courseService.addCourses(Arrays.asList(courses)).getAcceptedCount()
+                    + enrollmentService.restoreEnrollments(enrollments).getAcceptedCount();
+
+            return loaded;
+        }
+    }
+
+    // Buffered writer of primitive values to a channel
+    private static final class Output implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        private Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void writeInt(int value) throws IOException {
+            ensureCapacity(4);
+            buffer.putInt(value);
+        }
+
+        private void writeByte(int value) throws IOException {
+            ensureCapacity(1);
+            buffer.put((byte) value);
+        }
+
+        private void writeBoolean(boolean value) throws IOException {
+            writeByte(value ? 1 : 0);
+        }
+
+        private void writeDateTime(LocalDateTime value) throws IOException {
+            ensureCapacity(12);
+            buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(value.getNano());
+        }
+
+        // Length in bytes followed by UTF-8 bytes; -1 for null
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            for (int offset = 0; offset < bytes.length; ) {
+                ensureCapacity(1);
+                int n = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, n);
+                offset += n;
+            }
+        }
+
+        private void ensureCapacity(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    // Reader of primitive values from a loaded snapshot
+    private static final class Input {
+        private final ByteBuffer buffer;
+        private byte[] scratch = new byte[256];
+
+        private Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private int readInt() throws IOException {
+            checkRemaining(4);
+            return buffer.getInt();
+        }
+
+        private int readByte() throws IOException {
+            checkRemaining(1);
+            return buffer.get();
+        }
+
+        private boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        private LocalDateTime readDateTime() throws IOException {
+            checkRemaining(12);
+            long seconds = buffer.getLong();
+            return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+        }
+
+        // A section's record count, checked against the bytes left so a corrupt count fails fast
+        private int readCount() throws IOException {
+            int count = readInt();
+            if (count < 0 || count > buffer.remaining()) throw new IOException("Corrupt snapshot: bad record count");
+            return count;
+        }
+
+        private String readString() throws IOException {
+            int length = readInt();
+            if (length < 0) return null;
+            checkRemaining(length);
+
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void checkRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) throw new IOException("Corrupt snapshot: unexpected end of file");
+        }
+    }
+}
\ No newline at end of file
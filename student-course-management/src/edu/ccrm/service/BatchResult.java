@@ -0,0 +1,53 @@
+package edu.ccrm.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-item outcome of a batch insert, in the same order as the submitted items.
+ */
+public class BatchResult<T> {
+    private final List<Outcome<T>> outcomes;
+    private int acceptedCount;
+
+    public BatchResult(int expectedSize) {
+        this.outcomes = new ArrayList<>(expectedSize);
+    }
+
+    public void accept(T item) {
+        outcomes.add(new Outcome<>(item, true, null));
+        acceptedCount++;
+    }
+
+    public void reject(T item, String message) {
+        outcomes.add(new Outcome<>(item, false, message));
+    }
+
+    public List<Outcome<T>> getOutcomes() { return outcomes; }
+    public int getAcceptedCount() { return acceptedCount; }
+    public int getRejectedCount() { return outcomes.size() - acceptedCount; }
+
+    public List<T> getAccepted() {
+        List<T> accepted = new ArrayList<>(acceptedCount);
+        for (Outcome<T> outcome : outcomes) {
+            if (outcome.isAccepted()) accepted.add(outcome.getItem());
+        }
+        return accepted;
+    }
+
+    public static class Outcome<T> {
+        private final T item;
+        private final boolean accepted;
+        private final String message;
+
+        Outcome(T item, boolean accepted, String message) {
+            this.item = item;
+            this.accepted = accepted;
+            this.message = message;
+        }
+
+        public T getItem() { return item; }
+        public boolean isAccepted() { return accepted; }
+        public String getMessage() { return message; }
+    }
+}
\ No newline at end of file
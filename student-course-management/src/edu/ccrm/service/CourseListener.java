@@ -0,0 +1,12 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+
+/**
+ * Callback for course changes, fired after the change has been applied.
+ */
+public interface CourseListener {
+    default void onCourseAdded(Course course) {}
+    default void onCourseUpdated(Course course) {}
+    default void onCourseDeactivated(Course course) {}
+}
\ No newline at end of file
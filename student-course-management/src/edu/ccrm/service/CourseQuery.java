@@ -0,0 +1,191 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Semester;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Structured course search: field comparisons combined with AND and OR. Unlike an
+ * opaque lambda, CourseService can see which fields a query constrains and answer it
+ * from its department, semester and instructor indexes. Comparison values are
+ * normalized when the query is built, so testing a course allocates nothing.
+ *
+ * Department and title comparisons ignore case. Queries are immutable and can be
+ * reused; as a Predicate they also work with streams or the predicate overload of
+ * searchCourses.
+ */
+public final class CourseQuery implements Predicate<Course> {
+
+    public enum Comparison {
+        EQ("="), NE("!="), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Comparison(String symbol) {
+            this.symbol = symbol;
+        }
+
+        private boolean matches(int actual, int expected) {
+            switch (this) {
+                case EQ: return actual == expected;
+                case NE: return actual != expected;
+                case LT: return actual < expected;
+                case LE: return actual <= expected;
+                case GT: return actual > expected;
+                default: return actual >= expected;
+            }
+        }
+    }
+
+    enum Kind { DEPARTMENT, SEMESTER, INSTRUCTOR, CREDITS, ACTIVE, TITLE, AND, OR }
+
+    private final Kind kind;
+    private final Object value;
+    private final Comparison comparison;
+    private final List<CourseQuery> children;
+
+    private CourseQuery(Kind kind, Object value, Comparison comparison, List<CourseQuery> children) {
+        this.kind = kind;
+        this.value = value;
+        this.comparison = comparison;
+        this.children = children;
+    }
+
+    private static CourseQuery field(Kind kind, Object value) {
+        return new CourseQuery(kind, value, Comparison.EQ, Collections.emptyList());
+    }
+
+    public static CourseQuery department(String department) {
+        return field(Kind.DEPARTMENT, normalize(department, "Department"));
+    }
+
+    public static CourseQuery semester(Semester semester) {
+        if (semester == null) throw new IllegalArgumentException("Semester cannot be null");
+        return field(Kind.SEMESTER, semester);
+    }
+
+    public static CourseQuery instructor(String instructorId) {
+        if (instructorId == null || instructorId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Instructor ID cannot be null or empty");
+        }
+        return field(Kind.INSTRUCTOR, instructorId);
+    }
+
+    public static CourseQuery credits(Comparison comparison, int credits) {
+        if (comparison == null) throw new IllegalArgumentException("Comparison cannot be null");
+        return new CourseQuery(Kind.CREDITS, credits, comparison, Collections.emptyList());
+    }
+
+    public static CourseQuery active(boolean active) {
+        return field(Kind.ACTIVE, active);
+    }
+
+    public static CourseQuery titleContains(String text) {
+        return field(Kind.TITLE, normalize(text, "Title"));
+    }
+
+    public static CourseQuery allOf(CourseQuery... queries) {
+        return combine(Kind.AND, queries);
+    }
+
+    public static CourseQuery anyOf(CourseQuery... queries) {
+        return combine(Kind.OR, queries);
+    }
+
+    public CourseQuery and(CourseQuery other) {
+        return allOf(this, other);
+    }
+
+    public CourseQuery or(CourseQuery other) {
+        return anyOf(this, other);
+    }
+
+    // Nested groups of the same kind are flattened, so the planner sees all their terms at once
+    private static CourseQuery combine(Kind kind, CourseQuery... queries) {
+        if (queries == null || queries.length == 0) {
+            throw new IllegalArgumentException("At least one query is required");
+        }
+
+        List<CourseQuery> terms = new ArrayList<>();
+        for (CourseQuery query : queries) {
+            if (query == null) throw new IllegalArgumentException("Query cannot be null");
+            terms.addAll(query.kind == kind ? query.children : Collections.singletonList(query));
+        }
+        if (terms.size() == 1) return terms.get(0);
+        return new CourseQuery(kind, null, null, Collections.unmodifiableList(terms));
+    }
+
+    @Override
+    public boolean test(Course course) {
+        switch (kind) {
+            case DEPARTMENT:
+                return course.getDepartment() != null && course.getDepartment().equalsIgnoreCase((String) value);
+            case SEMESTER:
+                return course.getSemester() == value;
+            case INSTRUCTOR:
+                return course.getInstructor() != null && course.getInstructor().getId().equals(value);
+            case CREDITS:
+                return comparison.matches(course.getCredits(), (Integer) value);
+            case ACTIVE:
+                return course.isActive() == (Boolean) value;
+            case TITLE:
+                return course.getTitle() != null && containsIgnoreCase(course.getTitle(), (String) value);
+            case AND:
+                for (CourseQuery child : children) {
+                    if (!child.test(course)) return false;
+                }
+                return true;
+            default:
+                for (CourseQuery child : children) {
+                    if (child.test(course)) return true;
+                }
+                return false;
+        }
+    }
+
+    Kind getKind() { return kind; }
+    Object getValue() { return value; }
+    List<CourseQuery> getChildren() { return children; }
+
+    // A department, semester or instructor equality, which an index can answer exactly
+    boolean isIndexed() {
+        return kind == Kind.DEPARTMENT || kind == Kind.SEMESTER || kind == Kind.INSTRUCTOR;
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case AND:
+            case OR:
+                return children.stream()
+                        .map(child -> child.children.isEmpty() ? child.toString() : "(" + child + ")")
+                        .collect(Collectors.joining(" " + kind + " "));
+            case TITLE:
+                return "title contains '" + value + "'";
+            case CREDITS:
+                return "credits " + comparison.symbol + " " + value;
+            default:
+                return kind.name().toLowerCase(Locale.ROOT) + " = " + value;
+        }
+    }
+
+    private static String normalize(String text, String field) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException(field + " cannot be null or empty");
+        }
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // The needle is already lower-cased; regionMatches avoids lower-casing a copy of the title
+    private static boolean containsIgnoreCase(String text, String needle) {
+        for (int i = 0; i + needle.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+}
\ No newline at end of file
@@ -1,17 +1,27 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
 
 public interface CourseService {
     Course addCourse(Course course);
+    BatchResult<Course> addCourses(Collection<Course> courses);
     Course getCourse(String code);
+    Course getCourse(CourseCode code);
     List<Course> getAllCourses();
+    List<Course> viewAllCourses();
+    Page<Course> getCourses(int offset, int limit);
+    Page<Course> getCoursesAfter(String cursor, int limit);
+    Page<Course> getCoursesByCode(String cursor, int limit);
     Course updateCourse(Course course);
     boolean deactivateCourse(String code);
     List<Course> searchCourses(Predicate<Course> predicate);
+    List<Course> searchCourses(CourseQuery query);
     List<Course> getCoursesByInstructor(String instructorId);
     List<Course> getCoursesByDepartment(String department);
     List<Course> getCoursesBySemester(edu.ccrm.domain.Semester semester);
+    void addListener(CourseListener listener);
 }
\ No newline at end of file
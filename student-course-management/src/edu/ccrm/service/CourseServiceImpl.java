@@ -1,16 +1,68 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Semester;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class CourseServiceImpl implements CourseService {
-    private final List<Course> courses;
+    // Primary registry keyed by course code (insertion ordered)
+    private Map<CourseCode, Course> registry;
+    // Lookup from the printed form of a code (e.g. "CS101") to the code itself
+    private Map<String, CourseCode> codesByText;
+    // Codes in registry order, giving positional access for paging (courses are never removed)
+    private final ArrayList<CourseCode> codesInOrder;
+    private final List<Course> coursesInOrder;
+    // Sort index over the printed codes, for listings in code order
+    private final TreeMap<String, CourseCode> sortedCodes;
+
+    // Secondary indexes
+    private final Map<Semester, Map<CourseCode, Course>> coursesBySemester;
+    private final Map<String, Map<CourseCode, Course>> coursesByDepartment;
+    private final Map<String, Map<CourseCode, Course>> coursesByInstructor;
+    // Keys each course is currently indexed under, since Course fields are mutable
+    private Map<CourseCode, IndexKeys> indexedKeys;
+    // Number of entries the registry maps were last presized for by a batch insert
+    private int indexCapacity;
+    private final List<CourseListener> listeners;
 
     public CourseServiceImpl() {
-        this.courses = new ArrayList<>();
+        this.registry = new LinkedHashMap<>();
+        this.codesByText = new HashMap<>();
+        this.codesInOrder = new ArrayList<>();
+        this.coursesInOrder = new AbstractList<Course>() {
+            @Override
+            public Course get(int index) {
+                return registry.get(codesInOrder.get(index));
+            }
+
+            @Override
+            public int size() {
+                return codesInOrder.size();
+            }
+        };
+        this.sortedCodes = new TreeMap<>();
+        this.coursesBySemester = new EnumMap<>(Semester.class);
+        this.coursesByDepartment = new HashMap<>();
+        this.coursesByInstructor = new HashMap<>();
+        this.indexedKeys = new HashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     @Override
@@ -18,48 +70,117 @@ public class CourseServiceImpl implements CourseService {
         if (course == null) throw new IllegalArgumentException("Course cannot be null");
 
         // Check if course with same code already exists
-        if (courses.stream().anyMatch(c -> c.getCode().equals(course.getCode()))) {
+        if (registry.containsKey(course.getCode())) {
             throw new IllegalArgumentException("Course with code " + course.getCode() + " already exists");
         }
 
-        courses.add(course);
+        registry.put(course.getCode(), course);
+        codesByText.put(course.getCode().toString(), course.getCode());
+        sortedCodes.put(course.getCode().toString(), course.getCode());
+        codesInOrder.add(course.getCode());
+        index(course);
+
+        for (CourseListener listener : listeners) {
+            listener.onCourseAdded(course);
+        }
         return course;
     }
 
+    @Override
+    public BatchResult<Course> addCourses(Collection<Course> batch) {
+        if (batch == null) throw new IllegalArgumentException("Courses cannot be null");
+
+        BatchResult<Course> result = new BatchResult<>(batch.size());
+        Set<CourseCode> batchCodes = new HashSet<>();
+
+        // Single pass: check uniqueness against the registry and the batch itself
+        for (Course course : batch) {
+            if (course == null) {
+                result.reject(null, "Course cannot be null");
+            } else if (registry.containsKey(course.getCode()) || !batchCodes.add(course.getCode())) {
+                result.reject(course, "Course with code " + course.getCode() + " already exists");
+            } else {
+                result.accept(course);
+            }
+        }
+
+        ensureIndexCapacity(registry.size() + result.getAcceptedCount());
+        for (BatchResult.Outcome<Course> outcome : result.getOutcomes()) {
+            if (!outcome.isAccepted()) continue;
+
+            Course course = outcome.getItem();
+            registry.put(course.getCode(), course);
+            codesByText.put(course.getCode().toString(), course.getCode());
+            sortedCodes.put(course.getCode().toString(), course.getCode());
+            codesInOrder.add(course.getCode());
+            index(course);
+
+            for (CourseListener listener : listeners) {
+                listener.onCourseAdded(course);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Course getCourse(String code) {
         if (code == null || code.trim().isEmpty()) {
             throw new IllegalArgumentException("Course code cannot be null or empty");
         }
 
-        return courses.stream()
-                .filter(c -> c.getCode().toString().equals(code))
-                .findFirst()
-                .orElse(null);
+        CourseCode courseCode = codesByText.get(code);
+        return courseCode != null ? registry.get(courseCode) : null;
+    }
+
+    @Override
+    public Course getCourse(CourseCode code) {
+        if (code == null) throw new IllegalArgumentException("Course code cannot be null");
+
+        return registry.get(code);
     }
 
     @Override
     public List<Course> getAllCourses() {
-        return new ArrayList<>(courses); // Defensive copy
+        return new ArrayList<>(registry.values()); // Defensive copy
+    }
+
+    // Read-only live view in registry order, for callers that only iterate or count
+    @Override
+    public List<Course> viewAllCourses() {
+        return Collections.unmodifiableList(coursesInOrder);
+    }
+
+    @Override
+    public Page<Course> getCourses(int offset, int limit) {
+        return Page.of(coursesInOrder, offset, limit, course -> course.getCode().toString());
+    }
+
+    @Override
+    public Page<Course> getCoursesAfter(String cursor, int limit) {
+        return Page.after(coursesInOrder, cursor, limit, course -> course.getCode().toString());
+    }
+
+    // Keyset pages in code order, as Comparators.COURSE_BY_CODE sorts; a null cursor starts at the first
+    @Override
+    public Page<Course> getCoursesByCode(String cursor, int limit) {
+        return Page.sorted(sortedCodes, cursor, limit, registry::get);
     }
 
     @Override
     public Course updateCourse(Course course) {
         if (course == null) throw new IllegalArgumentException("Course cannot be null");
 
-        int index = -1;
-        for (int i = 0; i < courses.size(); i++) {
-            if (courses.get(i).getCode().equals(course.getCode())) {
-                index = i;
-                break;
-            }
-        }
-
-        if (index == -1) {
+        if (!registry.containsKey(course.getCode())) {
             throw new IllegalArgumentException("Course with code " + course.getCode() + " not found");
         }
 
-        courses.set(index, course);
+        unindex(course.getCode());
+        registry.put(course.getCode(), course);
+        index(course);
+
+        for (CourseListener listener : listeners) {
+            listener.onCourseUpdated(course);
+        }
         return course;
     }
 
@@ -69,43 +190,237 @@ public class CourseServiceImpl implements CourseService {
         if (course == null) return false;
 
         course.setActive(false);
+        for (CourseListener listener : listeners) {
+            listener.onCourseDeactivated(course);
+        }
         return true;
     }
 
+    @Override
+    public void addListener(CourseListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+        listeners.add(listener);
+    }
+
     @Override
     public List<Course> searchCourses(Predicate<Course> predicate) {
         if (predicate == null) return new ArrayList<>();
+        if (predicate instanceof CourseQuery) return searchCourses((CourseQuery) predicate);
 
-        return courses.stream()
+        return registry.values().stream()
                 .filter(predicate)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Answers the query from the indexes where it can: an AND starts from its most
+     * selective term and probes the other index buckets, an OR of indexed terms is the
+     * union of their buckets, and only the remaining terms are tested per course. A
+     * query with no usable index term falls back to a scan of the registry.
+     */
+    @Override
+    public List<Course> searchCourses(CourseQuery query) {
+        if (query == null) return new ArrayList<>();
+
+        Collection<Course> matches = evaluate(query);
+        if (matches != null) return new ArrayList<>(matches);
+
+        return registry.values().stream()
+                .filter(query)
+                .collect(Collectors.toList());
+    }
+
+    // Exact matches of the query using the indexes, or null if it has no index to start from
+    private Collection<Course> evaluate(CourseQuery query) {
+        if (query.isIndexed()) return bucketFor(query).values();
+        if (estimate(query) == Integer.MAX_VALUE) return null;
+
+        if (query.getKind() == CourseQuery.Kind.OR) {
+            Map<CourseCode, Course> union = new LinkedHashMap<>();
+            for (CourseQuery child : query.getChildren()) {
+                for (Course course : evaluate(child)) {
+                    union.putIfAbsent(course.getCode(), course);
+                }
+            }
+            return union.values();
+        }
+
+        // AND: start from the smallest term, then probe index buckets before testing the rest
+        CourseQuery driver = null;
+        int driverEstimate = Integer.MAX_VALUE;
+        for (CourseQuery child : query.getChildren()) {
+            int childEstimate = estimate(child);
+            if (driver == null || childEstimate < driverEstimate) {
+                driver = child;
+                driverEstimate = childEstimate;
+            }
+        }
+        List<Map<CourseCode, Course>> probes = new ArrayList<>();
+        List<CourseQuery> residual = new ArrayList<>();
+        for (CourseQuery child : query.getChildren()) {
+            if (child == driver) continue;
+            if (child.isIndexed()) probes.add(bucketFor(child));
+            else residual.add(child);
+        }
+        probes.sort(Comparator.comparingInt(Map::size));
+
+        List<Course> matches = new ArrayList<>();
+        for (Course course : evaluate(driver)) {
+            if (inAll(probes, course.getCode()) && passesAll(residual, course)) matches.add(course);
+        }
+        return matches;
+    }
+
+    // Upper bound on the number of matches, or Integer.MAX_VALUE if only a scan can tell
+    private int estimate(CourseQuery query) {
+        if (query.isIndexed()) return bucketFor(query).size();
+
+        switch (query.getKind()) {
+            case AND: {
+                int smallest = Integer.MAX_VALUE;
+                for (CourseQuery child : query.getChildren()) {
+                    smallest = Math.min(smallest, estimate(child));
+                }
+                return smallest;
+            }
+            case OR: {
+                long total = 0;
+                for (CourseQuery child : query.getChildren()) {
+                    total += estimate(child);
+                }
+                return (int) Math.min(total, Integer.MAX_VALUE);
+            }
+            default:
+                return Integer.MAX_VALUE;
+        }
+    }
+
+    private Map<CourseCode, Course> bucketFor(CourseQuery query) {
+        Map<CourseCode, Course> bucket;
+        switch (query.getKind()) {
+            case DEPARTMENT:
+                bucket = coursesByDepartment.get(departmentKey((String) query.getValue()));
+                break;
+            case SEMESTER:
+                bucket = coursesBySemester.get((Semester) query.getValue());
+                break;
+            default:
+                bucket = coursesByInstructor.get((String) query.getValue());
+        }
+        return bucket != null ? bucket : Collections.emptyMap();
+    }
+
+    private static boolean inAll(List<Map<CourseCode, Course>> buckets, CourseCode code) {
+        for (Map<CourseCode, Course> bucket : buckets) {
+            if (!bucket.containsKey(code)) return false;
+        }
+        return true;
+    }
+
+    private static boolean passesAll(List<CourseQuery> queries, Course course) {
+        for (CourseQuery query : queries) {
+            if (!query.test(course)) return false;
+        }
+        return true;
+    }
+
     @Override
     public List<Course> getCoursesByInstructor(String instructorId) {
         if (instructorId == null || instructorId.trim().isEmpty()) return new ArrayList<>();
 
-        return courses.stream()
-                .filter(c -> c.getInstructor() != null &&
-                        c.getInstructor().getId().equals(instructorId))
-                .collect(Collectors.toList());
+        return bucketOf(coursesByInstructor.get(instructorId));
     }
 
     @Override
     public List<Course> getCoursesByDepartment(String department) {
         if (department == null || department.trim().isEmpty()) return new ArrayList<>();
 
-        return courses.stream()
-                .filter(c -> c.getDepartment().equalsIgnoreCase(department))
-                .collect(Collectors.toList());
+        return bucketOf(coursesByDepartment.get(departmentKey(department)));
     }
 
     @Override
-    public List<Course> getCoursesBySemester(edu.ccrm.domain.Semester semester) {
+    public List<Course> getCoursesBySemester(Semester semester) {
         if (semester == null) return new ArrayList<>();
 
-        return courses.stream()
-                .filter(c -> c.getSemester() == semester)
-                .collect(Collectors.toList());
+        return bucketOf(coursesBySemester.get(semester));
+    }
+
+    // Grows the registry maps at most once per batch instead of rehashing repeatedly
+    private void ensureIndexCapacity(int expectedSize) {
+        if (expectedSize <= indexCapacity) return;
+
+        int capacity = Math.max(expectedSize, indexCapacity * 2);
+        int tableSize = (int) (capacity / 0.75f) + 1;
+        codesInOrder.ensureCapacity(capacity);
+
+        Map<CourseCode, Course> resizedRegistry = new LinkedHashMap<>(tableSize);
+        resizedRegistry.putAll(registry);
+        registry = resizedRegistry;
+
+        Map<String, CourseCode> resizedCodes = new HashMap<>(tableSize);
+        resizedCodes.putAll(codesByText);
+        codesByText = resizedCodes;
+
+        Map<CourseCode, IndexKeys> resizedKeys = new HashMap<>(tableSize);
+        resizedKeys.putAll(indexedKeys);
+        indexedKeys = resizedKeys;
+
+        indexCapacity = capacity;
+    }
+
+    private void index(Course course) {
+        IndexKeys keys = new IndexKeys(
+                departmentKey(course.getDepartment()),
+                course.getSemester(),
+                course.getInstructor() != null ? course.getInstructor().getId() : null);
+
+        CourseCode code = course.getCode();
+        coursesBySemester.computeIfAbsent(keys.semester, s -> new LinkedHashMap<>()).put(code, course);
+        coursesByDepartment.computeIfAbsent(keys.department, d -> new LinkedHashMap<>()).put(code, course);
+        if (keys.instructorId != null) {
+            coursesByInstructor.computeIfAbsent(keys.instructorId, i -> new LinkedHashMap<>()).put(code, course);
+        }
+        indexedKeys.put(code, keys);
+    }
+
+    private void unindex(CourseCode code) {
+        IndexKeys keys = indexedKeys.remove(code);
+        if (keys == null) return;
+
+        removeFromBucket(coursesBySemester, keys.semester, code);
+        removeFromBucket(coursesByDepartment, keys.department, code);
+        if (keys.instructorId != null) {
+            removeFromBucket(coursesByInstructor, keys.instructorId, code);
+        }
+    }
+
+    private static <K> void removeFromBucket(Map<K, Map<CourseCode, Course>> index, K key, CourseCode code) {
+        Map<CourseCode, Course> bucket = index.get(key);
+        if (bucket == null) return;
+
+        bucket.remove(code);
+        if (bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static List<Course> bucketOf(Map<CourseCode, Course> bucket) {
+        return bucket != null ? new ArrayList<>(bucket.values()) : new ArrayList<>();
+    }
+
+    private static String departmentKey(String department) {
+        return department.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class IndexKeys {
+        private final String department;
+        private final Semester semester;
+        private final String instructorId;
+
+        private IndexKeys(String department, Semester semester, String instructorId) {
+            this.department = department;
+            this.semester = semester;
+            this.instructorId = instructorId;
+        }
     }
 }
\ No newline at end of file
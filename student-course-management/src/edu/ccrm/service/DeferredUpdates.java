@@ -0,0 +1,68 @@
+package edu.ccrm.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lock and update queue for a structure kept current from enrollment events. Those
+ * events fire while EnrollmentServiceImpl holds the student's lock stripe, so a
+ * listener only queues its update there, without waiting for the structure's lock.
+ * Reads take the lock and apply the queued updates first. Updates are applied in the
+ * order they were queued, which for any one student is the order of its events.
+ *
+ * So the queue cannot grow without bound between reads, the thread that queues the
+ * DRAIN_THRESHOLD-th pending update applies the queue, but only if the lock is free.
+ */
+final class DeferredUpdates {
+    private static final int DRAIN_THRESHOLD = 1024;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // Never blocks
+    void add(Runnable update) {
+        pending.add(update);
+        if (pendingCount.incrementAndGet() >= DRAIN_THRESHOLD && lock.tryLock()) {
+            try {
+                drain();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Applies the queued updates, then runs the action under the lock
+    void run(Runnable action) {
+        lock.lock();
+        try {
+            drain();
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    <T> T read(Supplier<T> action) {
+        lock.lock();
+        try {
+            drain();
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bounded by the count on entry, so a steady stream of new updates cannot keep a writer here
+    private void drain() {
+        for (int remaining = pendingCount.get(); remaining > 0; remaining--) {
+            Runnable update = pending.poll();
+            if (update == null) break;
+            pendingCount.decrementAndGet();
+            update.run();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+
+/**
+ * Callback for enrollment changes. Callbacks run on the mutating thread while the
+ * student's lock is held, so events for one student arrive in order.
+ */
+public interface EnrollmentListener {
+    default void onEnrolled(Enrollment enrollment) {}
+    default void onUnenrolled(Enrollment enrollment) {}
+    default void onGradeRecorded(Enrollment enrollment, Grade previous) {}
+    // An enrollment restored already inactive, e.g. from a backup. It holds no seat and
+    // counts toward no GPA, so it fires this instead of onEnrolled.
+    default void onRestoredInactive(Enrollment enrollment) {}
+}
\ No newline at end of file
@@ -5,17 +5,26 @@ import edu.ccrm.domain.Enrollment;
 import edu.ccrm.domain.Student;
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Grade;
+import java.util.Collection;
 import java.util.List;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
+import edu.ccrm.exception.CourseFullException;
 
 public interface EnrollmentService {
     Enrollment enrollStudent(Student student, Course course)
-            throws MaxCreditLimitExceededException, DuplicateEnrollmentException;
+            throws MaxCreditLimitExceededException, DuplicateEnrollmentException, CourseFullException;
     boolean unenrollStudent(String enrollmentId);
     Enrollment getEnrollment(String id);
     List<Enrollment> getEnrollmentsByStudent(String studentId);
     List<Enrollment> getEnrollmentsByCourse(String courseCode);
     boolean recordGrade(String enrollmentId, Grade grade);
     List<Enrollment> getAllEnrollments();
+    List<Enrollment> viewAllEnrollments();
+    Page<Enrollment> getEnrollments(int offset, int limit);
+    Page<Enrollment> getEnrollmentsAfter(String cursor, int limit);
+    BatchResult<Enrollment> restoreEnrollments(Collection<Enrollment> enrollments);
+    List<Student> getWaitlist(String courseCode);
+    List<BatchResult.Outcome<Student>> getSkippedWaitlist(String courseCode);
+    void addListener(EnrollmentListener listener);
 }
\ No newline at end of file
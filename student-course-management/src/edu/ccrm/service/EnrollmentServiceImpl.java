@@ -3,103 +3,200 @@ package edu.ccrm.service;
 import edu.ccrm.domain.Enrollment;
 import edu.ccrm.domain.Student;
 import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
 import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.exception.CourseFullException;
 import edu.ccrm.exception.DuplicateEnrollmentException;
 import edu.ccrm.exception.MaxCreditLimitExceededException;
+import edu.ccrm.util.AppendOnlyList;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class EnrollmentServiceImpl implements EnrollmentService {
+/**
+ * Thread-safe enrollment service. Mutations for a student are serialized on that
+ * student's lock stripe, so enrollments for different students proceed in parallel;
+ * lookups read the concurrent indexes without locking.
+ *
+ * Registered as a course listener, it re-weights the GPAs of students graded in a
+ * course whose credits change. It must be registered before listeners that read GPAs.
+ */
+public class EnrollmentServiceImpl implements EnrollmentService, CourseListener {
     private final List<Enrollment> enrollments;
+    private final Map<String, Enrollment> enrollmentsById;
+    private final Map<String, List<Enrollment>> enrollmentsByStudent;
+    private final Map<CourseCode, List<Enrollment>> enrollmentsByCourse;
+    private final Map<String, CourseCode> codesByText;
+    // Courses each student is actively enrolled in, for the duplicate check
+    // (inner sets are only touched while holding the student's lock)
+    private final Map<String, Set<CourseCode>> activeCoursesByStudent;
+    // Running active credit totals per student, indexed by Semester ordinal
+    // (arrays are only touched while holding the student's lock)
+    private final Map<String, int[]> activeCreditsByStudent;
+    private final Map<CourseCode, Waitlist> waitlists;
+    private final List<EnrollmentListener> listeners;
+    private final ReentrantLock[] studentLocks;
     private final int MAX_CREDITS_PER_SEMESTER = 21;
 
     public EnrollmentServiceImpl() {
-        this.enrollments = new ArrayList<>();
+        this(Runtime.getRuntime().availableProcessors() * 16);
+    }
+
+    public EnrollmentServiceImpl(int lockStripes) {
+        if (lockStripes <= 0) throw new IllegalArgumentException("Lock stripes must be positive");
+
+        this.enrollments = new AppendOnlyList<>();
+        this.enrollmentsById = new ConcurrentHashMap<>();
+        this.enrollmentsByStudent = new ConcurrentHashMap<>();
+        this.enrollmentsByCourse = new ConcurrentHashMap<>();
+        this.codesByText = new ConcurrentHashMap<>();
+        this.activeCoursesByStudent = new ConcurrentHashMap<>();
+        this.activeCreditsByStudent = new ConcurrentHashMap<>();
+        this.waitlists = new ConcurrentHashMap<>();
+        this.listeners = new CopyOnWriteArrayList<>();
+
+        // Round up to a power of two so the stripe can be picked with a mask
+        int stripes = Integer.highestOneBit(lockStripes - 1 | 1) << 1;
+        this.studentLocks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            studentLocks[i] = new ReentrantLock();
+        }
     }
 
     @Override
     public Enrollment enrollStudent(Student student, Course course)
-            throws MaxCreditLimitExceededException, DuplicateEnrollmentException {
+            throws MaxCreditLimitExceededException, DuplicateEnrollmentException, CourseFullException {
         if (student == null || course == null) {
             throw new IllegalArgumentException("Student and course cannot be null");
         }
 
-        // Check if student is already enrolled in this course
-        if (enrollments.stream()
-                .anyMatch(e -> e.getStudent().getId().equals(student.getId()) &&
-                        e.getCourse().getCode().equals(course.getCode()) &&
-                        e.isActive())) {
-            throw new DuplicateEnrollmentException("Student is already enrolled in this course");
-        }
-
-        // Check credit limit
-        int currentCredits = enrollments.stream()
-                .filter(e -> e.getStudent().getId().equals(student.getId()) &&
-                        e.isActive() &&
-                        e.getCourse().getSemester() == course.getSemester())
-                .mapToInt(e -> e.getCourse().getCredits())
-                .sum();
+        int position;
+        ReentrantLock lock = lockFor(student.getId());
+        lock.lock();
+        try {
+            checkEligibility(student, course);
 
-        if (currentCredits + course.getCredits() > MAX_CREDITS_PER_SEMESTER) {
-            throw new MaxCreditLimitExceededException(
-                    "Enrollment would exceed maximum credit limit of " + MAX_CREDITS_PER_SEMESTER);
+            // Reserve a seat; a full course puts the student on its waitlist
+            if (course.tryReserveSeat()) {
+                return createEnrollment(student, course);
+            }
+            codesByText.putIfAbsent(course.getCode().toString(), course.getCode());
+            position = waitlists.computeIfAbsent(course.getCode(), c -> new Waitlist()).offer(student);
+        } finally {
+            lock.unlock();
         }
 
-        // Create enrollment
-        String enrollmentId = UUID.randomUUID().toString();
-        Enrollment enrollment = new Enrollment(enrollmentId, student, course);
-        enrollments.add(enrollment);
+        // A seat freed between the failed reservation and the offer was promoted against an
+        // empty waitlist, so promote here rather than leave it unused until the next unenroll.
+        // Runs without the student's lock, as promotion takes other students' locks.
+        if (course.getAvailableSeats() > 0) {
+            promoteWaitlist(course);
+            Enrollment promoted = findActive(student.getId(), course.getCode());
+            if (promoted != null) return promoted;
+        }
+        throw new CourseFullException("Course " + course.getCode() +
+                " is full; student added to waitlist at position " + position, position);
+    }
 
-        // Add enrollment to student
-        student.addEnrollment(enrollment);
+    private Enrollment findActive(String studentId, CourseCode code) {
+        List<Enrollment> studentEnrollments = enrollmentsByStudent.get(studentId);
+        if (studentEnrollments == null) return null;
 
-        return enrollment;
+        for (Enrollment enrollment : studentEnrollments) {
+            if (enrollment.isActive() && enrollment.getCourse().getCode().equals(code)) return enrollment;
+        }
+        return null;
     }
 
     @Override
     public boolean unenrollStudent(String enrollmentId) {
         if (enrollmentId == null || enrollmentId.trim().isEmpty()) return false;
 
-        Enrollment enrollment = enrollments.stream()
-                .filter(e -> e.getId().equals(enrollmentId))
-                .findFirst()
-                .orElse(null);
+        Enrollment enrollment = enrollmentsById.get(enrollmentId);
 
         if (enrollment == null) return false;
 
-        enrollment.setActive(false);
-        enrollment.getStudent().removeEnrollment(enrollment);
+        boolean seatFreed = false;
+        ReentrantLock lock = lockFor(enrollment.getStudent().getId());
+        lock.lock();
+        try {
+            if (enrollment.isActive()) {
+                releaseActive(enrollment);
+                enrollment.getCourse().releaseSeat();
+                seatFreed = true;
+            }
+            enrollment.setActive(false);
+            enrollment.getStudent().removeEnrollment(enrollment);
+            if (seatFreed) {
+                for (EnrollmentListener listener : listeners) {
+                    listener.onUnenrolled(enrollment);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (seatFreed) {
+            promoteWaitlist(enrollment.getCourse());
+        }
         return true;
     }
 
+    @Override
+    public List<Student> getWaitlist(String courseCode) {
+        if (courseCode == null || courseCode.trim().isEmpty()) return new ArrayList<>();
+
+        CourseCode code = codesByText.get(courseCode);
+        Waitlist waitlist = code != null ? waitlists.get(code) : null;
+        return waitlist != null ? new ArrayList<>(waitlist.queue) : new ArrayList<>();
+    }
+
+    // Waitlisted students passed over at promotion, oldest first, with the reason
+    @Override
+    public List<BatchResult.Outcome<Student>> getSkippedWaitlist(String courseCode) {
+        if (courseCode == null || courseCode.trim().isEmpty()) return new ArrayList<>();
+
+        CourseCode code = codesByText.get(courseCode);
+        Waitlist waitlist = code != null ? waitlists.get(code) : null;
+        return waitlist != null ? new ArrayList<>(waitlist.skipped) : new ArrayList<>();
+    }
+
     @Override
     public Enrollment getEnrollment(String id) {
         if (id == null || id.trim().isEmpty()) return null;
 
-        return enrollments.stream()
-                .filter(e -> e.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return enrollmentsById.get(id);
     }
 
     @Override
     public List<Enrollment> getEnrollmentsByStudent(String studentId) {
         if (studentId == null || studentId.trim().isEmpty()) return new ArrayList<>();
 
-        return enrollments.stream()
-                .filter(e -> e.getStudent().getId().equals(studentId))
-                .collect(Collectors.toList());
+        List<Enrollment> studentEnrollments = enrollmentsByStudent.get(studentId);
+        return studentEnrollments != null ? new ArrayList<>(studentEnrollments) : new ArrayList<>();
     }
 
     @Override
     public List<Enrollment> getEnrollmentsByCourse(String courseCode) {
         if (courseCode == null || courseCode.trim().isEmpty()) return new ArrayList<>();
 
-        return enrollments.stream()
-                .filter(e -> e.getCourse().getCode().toString().equals(courseCode))
-                .collect(Collectors.toList());
+        CourseCode code = codesByText.get(courseCode);
+        List<Enrollment> courseEnrollments = code != null ? enrollmentsByCourse.get(code) : null;
+        return courseEnrollments != null ? new ArrayList<>(courseEnrollments) : new ArrayList<>();
     }
 
     @Override
@@ -109,12 +206,312 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         Enrollment enrollment = getEnrollment(enrollmentId);
         if (enrollment == null) return false;
 
-        enrollment.setGrade(grade);
-        return true;
+        ReentrantLock lock = lockFor(enrollment.getStudent().getId());
+        lock.lock();
+        try {
+            Grade previous = enrollment.getGrade();
+            enrollment.setGrade(grade);
+            for (EnrollmentListener listener : listeners) {
+                listener.onGradeRecorded(enrollment, previous);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Override
     public List<Enrollment> getAllEnrollments() {
         return new ArrayList<>(enrollments); // Defensive copy
     }
+
+    // Read-only live view; safe to iterate while enrollments are added, which appear at the end
+    @Override
+    public List<Enrollment> viewAllEnrollments() {
+        return Collections.unmodifiableList(enrollments);
+    }
+
+    @Override
+    public Page<Enrollment> getEnrollments(int offset, int limit) {
+        return Page.of(enrollments, offset, limit, Enrollment::getId);
+    }
+
+    @Override
+    public Page<Enrollment> getEnrollmentsAfter(String cursor, int limit) {
+        return Page.after(enrollments, cursor, limit, Enrollment::getId);
+    }
+
+    /**
+     * Restores previously exported enrollments, keeping their IDs, dates, grades and
+     * active flags. The lock stripes of all students in the batch are taken once, and
+     * the semester credit cap is checked once per student; only a student whose rows
+     * would exceed the cap is re-checked row by row. Rows are applied in the order of
+     * the given collection, so active enrollments reserve seats in that order however
+     * the rows are split into batches, and outcomes are reported in that order.
+     */
+    @Override
+    public BatchResult<Enrollment> restoreEnrollments(Collection<Enrollment> batch) {
+        if (batch == null) throw new IllegalArgumentException("Enrollments cannot be null");
+
+        List<Enrollment> items = new ArrayList<>(batch);
+        String[] errors = new String[items.size()];
+        boolean[] accepted = new boolean[items.size()];
+        Map<String, List<Integer>> positionsByStudent = new HashMap<>();
+        Set<String> batchIds = new HashSet<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            Enrollment enrollment = items.get(i);
+            if (enrollment == null) {
+                errors[i] = "Enrollment cannot be null";
+            } else if (enrollmentsById.containsKey(enrollment.getId()) || !batchIds.add(enrollment.getId())) {
+                errors[i] = "Enrollment with ID " + enrollment.getId() + " already exists";
+            } else {
+                positionsByStudent.computeIfAbsent(enrollment.getStudent().getId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // Stripes are locked in index order, so concurrent batches cannot deadlock
+        boolean[] stripes = new boolean[studentLocks.length];
+        for (String studentId : positionsByStudent.keySet()) {
+            stripes[stripeFor(studentId)] = true;
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            if (stripes[i]) studentLocks[i].lock();
+        }
+        try {
+            restoreRows(positionsByStudent, items, errors, accepted);
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                if (stripes[i]) studentLocks[i].unlock();
+            }
+        }
+
+        BatchResult<Enrollment> result = new BatchResult<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (accepted[i]) {
+                result.accept(items.get(i));
+            } else {
+                result.reject(items.get(i), errors[i]);
+            }
+        }
+        return result;
+    }
+
+    // Must be called while holding the lock of every student in the batch
+    private void restoreRows(Map<String, List<Integer>> positionsByStudent, List<Enrollment> items,
+                             String[] errors, boolean[] accepted) {
+        Set<String> checkEachRow = new HashSet<>();
+        for (Map.Entry<String, List<Integer>> group : positionsByStudent.entrySet()) {
+            String studentId = group.getKey();
+            // Projected active credits per semester if all the student's rows are accepted
+            int[] projected = activeCreditsByStudent.containsKey(studentId)
+                    ? activeCreditsByStudent.get(studentId).clone() : new int[Semester.values().length];
+            for (int position : group.getValue()) {
+                Enrollment enrollment = items.get(position);
+                if (enrollment.isActive()) {
+                    projected[enrollment.getChargedSemester().ordinal()] += enrollment.getChargedCredits();
+                }
+            }
+            for (int credits : projected) {
+                if (credits > MAX_CREDITS_PER_SEMESTER) checkEachRow.add(studentId);
+            }
+        }
+
+        for (int position = 0; position < items.size(); position++) {
+            if (errors[position] != null) continue;
+
+            Enrollment enrollment = items.get(position);
+            String studentId = enrollment.getStudent().getId();
+            Course course = enrollment.getCourse();
+
+            if (enrollment.isActive()) {
+                Set<CourseCode> activeCourses = activeCoursesByStudent.get(studentId);
+                if (activeCourses != null && activeCourses.contains(course.getCode())) {
+                    errors[position] = "Student is already enrolled in this course";
+                    continue;
+                }
+                if (checkEachRow.contains(studentId) && activeCredits(studentId, enrollment.getChargedSemester())
+                        + enrollment.getChargedCredits() > MAX_CREDITS_PER_SEMESTER) {
+                    errors[position] = "Enrollment would exceed maximum credit limit of " + MAX_CREDITS_PER_SEMESTER;
+                    continue;
+                }
+                if (!course.tryReserveSeat()) {
+                    errors[position] = "Course " + course.getCode() + " is full";
+                    continue;
+                }
+            }
+
+            enrollments.add(enrollment);
+            index(enrollment);
+            if (enrollment.isActive()) {
+                enrollment.getStudent().addEnrollment(enrollment);
+                for (EnrollmentListener listener : listeners) {
+                    listener.onEnrolled(enrollment);
+                }
+            } else {
+                for (EnrollmentListener listener : listeners) {
+                    listener.onRestoredInactive(enrollment);
+                }
+            }
+            accepted[position] = true;
+        }
+    }
+
+    @Override
+    public void onCourseUpdated(Course course) {
+        List<Enrollment> courseEnrollments = enrollmentsByCourse.get(course.getCode());
+        if (courseEnrollments == null) return;
+
+        for (Enrollment enrollment : courseEnrollments) {
+            enrollment.getStudent().reweightGrade(enrollment);
+        }
+    }
+
+    @Override
+    public void addListener(EnrollmentListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+        listeners.add(listener);
+    }
+
+    // Promotes waitlisted students into seats freed on the course, in waitlist order.
+    // Students who are no longer eligible (already enrolled, over the credit cap) are dropped.
+    private void promoteWaitlist(Course course) {
+        Waitlist waitlist = waitlists.get(course.getCode());
+        if (waitlist == null) return;
+
+        Student next;
+        while ((next = waitlist.poll()) != null) {
+            ReentrantLock lock = lockFor(next.getId());
+            lock.lock();
+            try {
+                checkEligibility(next, course);
+
+                if (!course.tryReserveSeat()) {
+                    // Seat was taken by a concurrent enrollment; keep our place in line
+                    waitlist.pushBack(next);
+                    return;
+                }
+                createEnrollment(next, course);
+            } catch (DuplicateEnrollmentException | MaxCreditLimitExceededException e) {
+                waitlist.skipped.add(new BatchResult.Outcome<>(next, false, e.getMessage()));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Must be called while holding the student's lock
+    private void checkEligibility(Student student, Course course)
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+        // Check if student is already enrolled in this course
+        Set<CourseCode> activeCourses = activeCoursesByStudent.get(student.getId());
+        if (activeCourses != null && activeCourses.contains(course.getCode())) {
+            throw new DuplicateEnrollmentException("Student is already enrolled in this course");
+        }
+
+        // Check credit limit
+        int currentCredits = activeCredits(student.getId(), course.getSemester());
+
+        if (currentCredits + course.getCredits() > MAX_CREDITS_PER_SEMESTER) {
+            throw new MaxCreditLimitExceededException(
+                    "Enrollment would exceed maximum credit limit of " + MAX_CREDITS_PER_SEMESTER);
+        }
+    }
+
+    // Must be called while holding the student's lock, with a seat already reserved
+    private Enrollment createEnrollment(Student student, Course course) {
+        String enrollmentId = UUID.randomUUID().toString();
+        Enrollment enrollment = new Enrollment(enrollmentId, student, course);
+        enrollments.add(enrollment);
+        index(enrollment);
+
+        // Add enrollment to student
+        student.addEnrollment(enrollment);
+
+        for (EnrollmentListener listener : listeners) {
+            listener.onEnrolled(enrollment);
+        }
+        return enrollment;
+    }
+
+    private void index(Enrollment enrollment) {
+        String studentId = enrollment.getStudent().getId();
+        CourseCode code = enrollment.getCourse().getCode();
+
+        enrollmentsById.put(enrollment.getId(), enrollment);
+        enrollmentsByStudent.computeIfAbsent(studentId, id -> new CopyOnWriteArrayList<>()).add(enrollment);
+        enrollmentsByCourse.computeIfAbsent(code, c -> new AppendOnlyList<>()).add(enrollment);
+        codesByText.putIfAbsent(code.toString(), code);
+
+        if (enrollment.isActive()) {
+            activeCoursesByStudent.computeIfAbsent(studentId, id -> new HashSet<>()).add(code);
+            activeCreditsByStudent.computeIfAbsent(studentId, id -> new int[Semester.values().length])
+                    [enrollment.getChargedSemester().ordinal()] += enrollment.getChargedCredits();
+        }
+    }
+
+    private void releaseActive(Enrollment enrollment) {
+        String studentId = enrollment.getStudent().getId();
+        Course course = enrollment.getCourse();
+
+        Set<CourseCode> activeCourses = activeCoursesByStudent.get(studentId);
+        if (activeCourses != null) {
+            activeCourses.remove(course.getCode());
+        }
+        // Releases exactly what index() charged, even if the course has been edited since
+        int[] credits = activeCreditsByStudent.get(studentId);
+        if (credits != null) {
+            credits[enrollment.getChargedSemester().ordinal()] -= enrollment.getChargedCredits();
+        }
+    }
+
+    private ReentrantLock lockFor(String studentId) {
+        return studentLocks[stripeFor(studentId)];
+    }
+
+    private int stripeFor(String studentId) {
+        int h = studentId.hashCode();
+        h ^= (h >>> 16);
+        return h & (studentLocks.length - 1);
+    }
+
+    private int activeCredits(String studentId, Semester semester) {
+        int[] credits = activeCreditsByStudent.get(studentId);
+        return credits != null ? credits[semester.ordinal()] : 0;
+    }
+
+    private static final class Waitlist {
+        private final Deque<Student> queue = new ConcurrentLinkedDeque<>();
+        private final Set<String> queuedIds = ConcurrentHashMap.newKeySet();
+        // Students no longer eligible when their turn came
+        private final Queue<BatchResult.Outcome<Student>> skipped = new ConcurrentLinkedQueue<>();
+
+        // Returns the student's 1-based position in the waitlist
+        private int offer(Student student) {
+            if (queuedIds.add(student.getId())) {
+                queue.addLast(student);
+            }
+
+            int position = 1;
+            for (Student queued : queue) {
+                if (queued.getId().equals(student.getId())) return position;
+                position++;
+            }
+            return position;
+        }
+
+        private Student poll() {
+            Student student = queue.pollFirst();
+            if (student != null) {
+                queuedIds.remove(student.getId());
+            }
+            return student;
+        }
+
+        private void pushBack(Student student) {
+            if (queuedIds.add(student.getId())) {
+                queue.addFirst(student);
+            }
+        }
+    }
 }
\ No newline at end of file
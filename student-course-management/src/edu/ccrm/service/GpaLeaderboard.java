@@ -0,0 +1,348 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Live GPA ranking kept current from enrollment events. Besides the overall ranking
+ * (by Student.calculateGPA), it ranks students by their GPA within each department's
+ * courses and within each semester's courses.
+ *
+ * Top-K queries walk the ranking in O(K); rank queries use a Fenwick tree over GPA
+ * buckets of 0.01 and run in O(log B). Students with equal (rounded) GPA share a rank.
+ *
+ * Each graded enrollment is remembered with the department, semester and credits it was
+ * counted under, and exactly that is taken back when it changes. When a course is
+ * updated, its enrollments move to the boards for its new department and semester and
+ * are re-weighted by its new credits, as Student re-weights its GPA.
+ *
+ * Events only queue their update, through DeferredUpdates, so enrollments do not wait
+ * on the leaderboard's lock; queries apply the queued updates first. A student's
+ * overall GPA is read when the update is applied, so it is always the current one.
+ */
+public class GpaLeaderboard implements EnrollmentListener, CourseListener {
+    private static final int GPA_BUCKETS = 1001; // 0.00 .. 10.00
+
+    private final Board overall;
+    private final Map<String, Board> byDepartment;
+    private final Map<Semester, Board> bySemester;
+    // Graded enrollments counted on the scoped boards, by course and enrollment ID
+    private final Map<CourseCode, Map<String, Contribution>> contributionsByCourse;
+    private final DeferredUpdates updates = new DeferredUpdates();
+
+    public GpaLeaderboard() {
+        this.overall = new Board();
+        this.byDepartment = new HashMap<>();
+        this.bySemester = new EnumMap<>(Semester.class);
+        this.contributionsByCourse = new HashMap<>();
+    }
+
+    // Rebuilds every ranking from scratch, e.g. after a bulk import
+    public void rebuild(Collection<Enrollment> enrollments) {
+        updates.run(() -> {
+            overall.clear();
+            byDepartment.clear();
+            bySemester.clear();
+            contributionsByCourse.clear();
+
+            for (Enrollment enrollment : enrollments) {
+                if (!enrollment.isActive()) continue;
+
+                Student student = enrollment.getStudent();
+                overall.put(student, student.calculateGPA());
+                applyScoped(enrollment, enrollment.getGrade());
+            }
+        });
+    }
+
+    @Override
+    public void onEnrolled(Enrollment enrollment) {
+        Grade grade = enrollment.getGrade();
+        updates.add(() -> {
+            Student student = enrollment.getStudent();
+            overall.put(student, student.calculateGPA());
+            applyScoped(enrollment, grade);
+        });
+    }
+
+    @Override
+    public void onUnenrolled(Enrollment enrollment) {
+        updates.add(() -> {
+            Student student = enrollment.getStudent();
+            if (student.getEnrolledCourses().isEmpty()) {
+                overall.remove(student.getId());
+            } else {
+                overall.put(student, student.calculateGPA());
+            }
+            applyScoped(enrollment, null);
+        });
+    }
+
+    @Override
+    public void onGradeRecorded(Enrollment enrollment, Grade previous) {
+        if (!enrollment.isActive()) return;
+
+        Grade grade = enrollment.getGrade();
+        updates.add(() -> {
+            Student student = enrollment.getStudent();
+            overall.put(student, student.calculateGPA());
+            applyScoped(enrollment, grade);
+        });
+    }
+
+    // Moves the course's graded enrollments if its department, semester or credits changed.
+    // Must run after EnrollmentServiceImpl has re-weighted the students' GPAs.
+    @Override
+    public void onCourseUpdated(Course course) {
+        String department = departmentKey(course.getDepartment());
+        Semester semester = course.getSemester();
+        int credits = course.getCredits();
+        updates.add(() -> {
+            Map<String, Contribution> graded = contributionsByCourse.get(course.getCode());
+            if (graded == null) return;
+
+            for (Contribution contribution : graded.values()) {
+                if (contribution.department.equals(department) && contribution.semester == semester
+                        && contribution.credits == credits) continue;
+
+                addToBoards(contribution, -1);
+                contribution.department = department;
+                contribution.semester = semester;
+                contribution.credits = credits;
+                addToBoards(contribution, 1);
+                overall.put(contribution.student, contribution.student.calculateGPA());
+            }
+        });
+    }
+
+    public List<Standing> getTopStudents(int limit) {
+        return updates.read(() -> overall.top(limit));
+    }
+
+    public List<Standing> getTopStudents(String department, int limit) {
+        return updates.read(() -> {
+            Board board = department != null ? byDepartment.get(departmentKey(department)) : null;
+            return board != null ? board.top(limit) : new ArrayList<>();
+        });
+    }
+
+    public List<Standing> getTopStudents(Semester semester, int limit) {
+        return updates.read(() -> {
+            Board board = semester != null ? bySemester.get(semester) : null;
+            return board != null ? board.top(limit) : new ArrayList<>();
+        });
+    }
+
+    // Returns the student's 1-based rank, or 0 if the student is not ranked
+    public int getRank(String studentId) {
+        return updates.read(() -> overall.rankOf(studentId));
+    }
+
+    public int getRank(String studentId, String department) {
+        return updates.read(() -> {
+            Board board = department != null ? byDepartment.get(departmentKey(department)) : null;
+            return board != null ? board.rankOf(studentId) : 0;
+        });
+    }
+
+    public int getRank(String studentId, Semester semester) {
+        return updates.read(() -> {
+            Board board = semester != null ? bySemester.get(semester) : null;
+            return board != null ? board.rankOf(studentId) : 0;
+        });
+    }
+
+    public int getRankedCount() {
+        return updates.read(overall::size);
+    }
+
+    // Replaces what the enrollment contributed to the scoped boards with the given grade
+    private void applyScoped(Enrollment enrollment, Grade current) {
+        Course course = enrollment.getCourse();
+        Map<String, Contribution> graded = contributionsByCourse.computeIfAbsent(course.getCode(), c -> new HashMap<>());
+
+        Contribution previous = current != null
+                ? graded.put(enrollment.getId(), new Contribution(enrollment.getStudent(), course, current))
+                : graded.remove(enrollment.getId());
+        if (previous != null) addToBoards(previous, -1);
+        if (current != null) addToBoards(graded.get(enrollment.getId()), 1);
+    }
+
+    private void addToBoards(Contribution contribution, int sign) {
+        double points = sign * contribution.grade.getGradePoint() * contribution.credits;
+        int credits = sign * contribution.credits;
+
+        byDepartment.computeIfAbsent(contribution.department, d -> new Board())
+                .adjust(contribution.student, points, credits);
+        bySemester.computeIfAbsent(contribution.semester, s -> new Board())
+                .adjust(contribution.student, points, credits);
+    }
+
+    private static String departmentKey(String department) {
+        return department.toLowerCase(Locale.ROOT);
+    }
+
+    private static int bucketOf(double gpa) {
+        int bucket = (int) Math.round(gpa * 100);
+        return Math.max(0, Math.min(GPA_BUCKETS - 1, bucket));
+    }
+
+    public static class Standing {
+        private final int rank;
+        private final Student student;
+        private final double gpa;
+
+        Standing(int rank, Student student, double gpa) {
+            this.rank = rank;
+            this.student = student;
+            this.gpa = gpa;
+        }
+
+        public int getRank() { return rank; }
+        public Student getStudent() { return student; }
+        public double getGpa() { return gpa; }
+    }
+
+    // A graded enrollment as counted on the scoped boards
+    private static final class Contribution {
+        private final Student student;
+        private final Grade grade;
+        private int credits;
+        private String department;
+        private Semester semester;
+
+        private Contribution(Student student, Course course, Grade grade) {
+            this.student = student;
+            this.grade = grade;
+            this.credits = course.getCredits();
+            this.department = departmentKey(course.getDepartment());
+            this.semester = course.getSemester();
+        }
+    }
+
+    private static final class Entry {
+        private final Student student;
+        private final double gpa;
+        private final int bucket;
+        // Scoped boards keep their own weighted totals
+        private final double gradePoints;
+        private final int credits;
+
+        private Entry(Student student, double gpa, double gradePoints, int credits) {
+            this.student = student;
+            this.gpa = gpa;
+            this.bucket = bucketOf(gpa);
+            this.gradePoints = gradePoints;
+            this.credits = credits;
+        }
+    }
+
+    // Highest bucket first, then by student ID for a stable order within a bucket
+    private static final Comparator<Entry> RANKING_ORDER =
+            Comparator.<Entry>comparingInt(e -> -e.bucket).thenComparing(e -> e.student.getId());
+
+    private static final class Board {
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final TreeSet<Entry> ranking = new TreeSet<>(RANKING_ORDER);
+        // Fenwick tree of entry counts per GPA bucket (1-based)
+        private final int[] bucketCounts = new int[GPA_BUCKETS + 1];
+
+        private void put(Student student, double gpa) {
+            replace(student.getId(), new Entry(student, gpa, 0, 0));
+        }
+
+        private void adjust(Student student, double pointsDelta, int creditsDelta) {
+            Entry existing = entries.get(student.getId());
+            double points = (existing != null ? existing.gradePoints : 0) + pointsDelta;
+            int credits = (existing != null ? existing.credits : 0) + creditsDelta;
+
+            if (credits <= 0) {
+                remove(student.getId());
+            } else {
+                replace(student.getId(), new Entry(student, points / credits, points, credits));
+            }
+        }
+
+        private void replace(String studentId, Entry entry) {
+            remove(studentId);
+            entries.put(studentId, entry);
+            ranking.add(entry);
+            addToBucket(entry.bucket, 1);
+        }
+
+        private void remove(String studentId) {
+            Entry old = entries.remove(studentId);
+            if (old != null) {
+                ranking.remove(old);
+                addToBucket(old.bucket, -1);
+            }
+        }
+
+        private List<Standing> top(int limit) {
+            List<Standing> result = new ArrayList<>(Math.max(0, Math.min(limit, entries.size())));
+            int rank = 0;
+            int previousBucket = -1;
+            int position = 0;
+
+            Iterator<Entry> iterator = ranking.iterator();
+            while (iterator.hasNext() && result.size() < limit) {
+                Entry entry = iterator.next();
+                position++;
+                if (entry.bucket != previousBucket) {
+                    rank = position;
+                    previousBucket = entry.bucket;
+                }
+                result.add(new Standing(rank, entry.student, entry.gpa));
+            }
+            return result;
+        }
+
+        private int rankOf(String studentId) {
+            Entry entry = entries.get(studentId);
+            if (entry == null) return 0;
+
+            // 1 + number of entries in strictly higher buckets
+            return 1 + entries.size() - prefixCount(entry.bucket);
+        }
+
+        private int size() {
+            return entries.size();
+        }
+
+        private void clear() {
+            entries.clear();
+            ranking.clear();
+            Arrays.fill(bucketCounts, 0);
+        }
+
+        private void addToBucket(int bucket, int delta) {
+            for (int i = bucket + 1; i <= GPA_BUCKETS; i += i & -i) {
+                bucketCounts[i] += delta;
+            }
+        }
+
+        // Number of entries with bucket <= the given bucket
+        private int prefixCount(int bucket) {
+            int count = 0;
+            for (int i = bucket + 1; i > 0; i -= i & -i) {
+                count += bucketCounts[i];
+            }
+            return count;
+        }
+    }
+}
\ No newline at end of file
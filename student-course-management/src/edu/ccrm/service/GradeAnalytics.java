@@ -0,0 +1,212 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Semester;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Grade histograms over active, graded enrollments, kept current from enrollment
+ * events. Counts are long[] indexed by Grade.ordinal(). There is one histogram per
+ * course, and these roll up into totals per department, semester and instructor and
+ * overall, so every distribution query is an O(1) copy of seven counts.
+ *
+ * A course is counted under the department, semester and instructor it had when first
+ * seen. When a course is updated, its counts move to its new ones.
+ *
+ * Events only queue their counts, with the grades and course keys as they were when the
+ * event fired, through DeferredUpdates, so enrollments do not wait on the analytics'
+ * lock. Queries apply the queued counts first.
+ */
+public class GradeAnalytics implements EnrollmentListener, CourseListener {
+    private static final int GRADES = Grade.values().length;
+
+    private final long[] overall;
+    private final Map<CourseCode, long[]> byCourse;
+    private final Map<CourseCode, CourseKeys> keysByCourse;
+    private final Map<String, long[]> byDepartment;
+    private final Map<Semester, long[]> bySemester;
+    private final Map<String, long[]> byInstructor;
+    private final DeferredUpdates updates = new DeferredUpdates();
+
+    public GradeAnalytics() {
+        this.overall = new long[GRADES];
+        this.byCourse = new HashMap<>();
+        this.keysByCourse = new HashMap<>();
+        this.byDepartment = new HashMap<>();
+        this.bySemester = new EnumMap<>(Semester.class);
+        this.byInstructor = new HashMap<>();
+    }
+
+    /**
+     * Rebuilds every histogram from a point-in-time view. Enrollments are counted per
+     * course position in parallel, into one flat long[] per worker, and the few course
+     * totals are then rolled up.
+     */
+    public void rebuild(ReadView view) {
+        List<ReadView.CourseRow> courses = view.getCourses();
+        long[] counts = view.getEnrollments().parallelStream()
+                .filter(enrollment -> enrollment.isActive() && enrollment.getGrade() != null)
+                .collect(() -> new long[courses.size() * GRADES],
+                        (totals, enrollment) -> totals[enrollment.getCoursePosition() * GRADES
+                                + enrollment.getGrade().ordinal()]++,
+                        (left, right) -> {
+                            for (int i = 0; i < left.length; i++) left[i] += right[i];
+                        });
+
+        updates.run(() -> {
+            clear();
+            for (int position = 0; position < courses.size(); position++) {
+                ReadView.CourseRow course = courses.get(position);
+                CourseKeys keys = new CourseKeys(course.getDepartment(), course.getSemester(), course.getInstructorId());
+                keysByCourse.put(course.getCode(), keys);
+
+                for (int grade = 0; grade < GRADES; grade++) {
+                    long count = counts[position * GRADES + grade];
+                    if (count != 0) add(course.getCode(), keys, grade, count);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onEnrolled(Enrollment enrollment) {
+        Grade grade = enrollment.getGrade();
+        if (grade != null) queue(enrollment.getCourse(), null, grade);
+    }
+
+    @Override
+    public void onUnenrolled(Enrollment enrollment) {
+        Grade grade = enrollment.getGrade();
+        if (grade != null) queue(enrollment.getCourse(), grade, null);
+    }
+
+    @Override
+    public void onGradeRecorded(Enrollment enrollment, Grade previous) {
+        Grade grade = enrollment.getGrade();
+        if (!enrollment.isActive() || previous == grade) return;
+
+        queue(enrollment.getCourse(), previous, grade);
+    }
+
+    // Moves the course's counts if its department, semester or instructor changed
+    @Override
+    public void onCourseUpdated(Course course) {
+        CourseKeys current = CourseKeys.of(course);
+        updates.add(() -> {
+            CourseKeys previous = keysByCourse.get(course.getCode());
+            if (previous == null || previous.equals(current)) return;
+
+            keysByCourse.put(course.getCode(), current);
+            long[] counts = byCourse.get(course.getCode());
+            if (counts == null) return;
+
+            for (int grade = 0; grade < GRADES; grade++) {
+                addToScopes(previous, grade, -counts[grade]);
+                addToScopes(current, grade, counts[grade]);
+            }
+        });
+    }
+
+    public GradeDistribution getDistribution() {
+        return updates.read(() -> new GradeDistribution(overall));
+    }
+
+    public GradeDistribution getCourseDistribution(CourseCode code) {
+        return updates.read(() -> distributionOf(code != null ? byCourse.get(code) : null));
+    }
+
+    public GradeDistribution getDepartmentDistribution(String department) {
+        return updates.read(() ->
+                distributionOf(department != null ? byDepartment.get(departmentKey(department)) : null));
+    }
+
+    public GradeDistribution getSemesterDistribution(Semester semester) {
+        return updates.read(() -> distributionOf(semester != null ? bySemester.get(semester) : null));
+    }
+
+    public GradeDistribution getInstructorDistribution(String instructorId) {
+        return updates.read(() -> distributionOf(instructorId != null ? byInstructor.get(instructorId) : null));
+    }
+
+    // Queues moving one count from the previous grade to the current one; either may be null
+    private void queue(Course course, Grade previous, Grade current) {
+        CourseKeys keys = CourseKeys.of(course);
+        updates.add(() -> {
+            // A course first seen here is counted under its keys as of this event
+            CourseKeys courseKeys = keysByCourse.computeIfAbsent(course.getCode(), c -> keys);
+            if (previous != null) add(course.getCode(), courseKeys, previous.ordinal(), -1);
+            if (current != null) add(course.getCode(), courseKeys, current.ordinal(), 1);
+        });
+    }
+
+    private void add(CourseCode code, CourseKeys keys, int grade, long delta) {
+        byCourse.computeIfAbsent(code, c -> new long[GRADES])[grade] += delta;
+        addToScopes(keys, grade, delta);
+    }
+
+    private void addToScopes(CourseKeys keys, int grade, long delta) {
+        overall[grade] += delta;
+        byDepartment.computeIfAbsent(keys.department, d -> new long[GRADES])[grade] += delta;
+        bySemester.computeIfAbsent(keys.semester, s -> new long[GRADES])[grade] += delta;
+        if (keys.instructorId != null) {
+            byInstructor.computeIfAbsent(keys.instructorId, i -> new long[GRADES])[grade] += delta;
+        }
+    }
+
+    private void clear() {
+        Arrays.fill(overall, 0);
+        byCourse.clear();
+        keysByCourse.clear();
+        byDepartment.clear();
+        bySemester.clear();
+        byInstructor.clear();
+    }
+
+    private static GradeDistribution distributionOf(long[] counts) {
+        return new GradeDistribution(counts != null ? counts : new long[GRADES]);
+    }
+
+    private static String departmentKey(String department) {
+        return department.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class CourseKeys {
+        private final String department;
+        private final Semester semester;
+        private final String instructorId;
+
+        private CourseKeys(String department, Semester semester, String instructorId) {
+            this.department = departmentKey(department);
+            this.semester = semester;
+            this.instructorId = instructorId;
+        }
+
+        private static CourseKeys of(Course course) {
+            return new CourseKeys(course.getDepartment(), course.getSemester(),
+                    course.getInstructor() != null ? course.getInstructor().getId() : null);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CourseKeys)) return false;
+            CourseKeys other = (CourseKeys) o;
+            return department.equals(other.department) && semester == other.semester
+                    && Objects.equals(instructorId, other.instructorId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(department, semester, instructorId);
+        }
+    }
+}
\ No newline at end of file
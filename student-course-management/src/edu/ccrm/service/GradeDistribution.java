@@ -0,0 +1,33 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Grade;
+import java.util.Arrays;
+
+/**
+ * Immutable count of graded enrollments per grade, indexed by Grade.ordinal().
+ */
+public class GradeDistribution {
+    private final long[] counts;
+    private final long total;
+
+    GradeDistribution(long[] counts) {
+        this.counts = Arrays.copyOf(counts, Grade.values().length);
+        this.total = Arrays.stream(this.counts).sum();
+    }
+
+    public long getCount(Grade grade) {
+        return counts[grade.ordinal()];
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public double getPercentage(Grade grade) {
+        return total > 0 ? counts[grade.ordinal()] * 100.0 / total : 0.0;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,354 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over student names for substring, prefix and typo-tolerant search.
+ * Each name is indexed lower-cased and padded with a space on both sides, so word
+ * boundaries show up in its n-grams. Every distinct 1-, 2- and 3-gram maps to a sorted
+ * posting list of document numbers. A substring query reads only the posting lists of
+ * its own n-grams, so its cost follows the rarest list rather than the number of
+ * students. Each word and the full name are also kept in a sorted map for prefix queries.
+ *
+ * Results come back in the order students were indexed. Not thread-safe, like the
+ * student store that maintains it.
+ */
+public class NameSearchIndex {
+    private static final int MAX_GRAM = 3;
+
+    // Document number -> student and its indexed (lower-cased, unpadded) name
+    private final List<Student> documents = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final Map<String, Integer> documentById = new HashMap<>();
+    private final GramTable postings = new GramTable();
+    private final TreeMap<String, PostingList> words = new TreeMap<>();
+
+    // Adds a student, or re-indexes it if its name changed since it was last put
+    public void put(Student student) {
+        if (student == null) throw new IllegalArgumentException("Student cannot be null");
+
+        String text = normalize(student.getFullName().toString());
+        Integer document = documentById.get(student.getId());
+        if (document == null) {
+            document = documents.size();
+            documentById.put(student.getId(), document);
+            documents.add(student);
+            texts.add(text);
+        } else {
+            documents.set(document, student);
+            if (texts.get(document).equals(text)) return;
+
+            unindex(document, texts.get(document));
+            texts.set(document, text);
+        }
+        index(document, text);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // Students whose full name contains the query, ignoring case
+    public List<Student> findBySubstring(String query) {
+        if (query == null || query.isEmpty()) return new ArrayList<>();
+        String needle = normalize(query);
+
+        int[] candidates;
+        int count;
+        if (needle.length() <= MAX_GRAM) {
+            PostingList list = postings.get(gram(needle, 0, needle.length()));
+            if (list == null) return new ArrayList<>();
+            candidates = list.documents;
+            count = list.size;
+        } else {
+            // Intersect the trigram lists, rarest first, probing the longer lists
+            List<PostingList> lists = new ArrayList<>();
+            for (int i = 0; i + MAX_GRAM <= needle.length(); i++) {
+                PostingList list = postings.get(gram(needle, i, MAX_GRAM));
+                if (list == null) return new ArrayList<>();
+                if (!lists.contains(list)) lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            candidates = Arrays.copyOf(lists.get(0).documents, lists.get(0).size);
+            count = candidates.length;
+            for (int l = 1; l < lists.size() && count > 0; l++) {
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    if (lists.get(l).contains(candidates[i])) candidates[kept++] = candidates[i];
+                }
+                count = kept;
+            }
+        }
+
+        // The grams of padded text also match across its edges, so candidates are checked
+        List<Student> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (texts.get(candidates[i]).contains(needle)) results.add(documents.get(candidates[i]));
+        }
+        return results;
+    }
+
+    // Students with a first name, last name or full name starting with the prefix, ignoring case
+    public List<Student> findByPrefix(String prefix) {
+        if (prefix == null || prefix.isEmpty()) return new ArrayList<>();
+        String start = normalize(prefix);
+
+        BitSet matches = new BitSet();
+        for (Map.Entry<String, PostingList> entry : words.tailMap(start, true).entrySet()) {
+            if (!entry.getKey().startsWith(start)) break;
+
+            PostingList list = entry.getValue();
+            for (int i = 0; i < list.size; i++) {
+                matches.set(list.documents[i]);
+            }
+        }
+        return collect(matches);
+    }
+
+    /**
+     * Up to limit students whose first, last or full name is within one edit of the
+     * query (two for queries longer than four characters), closest first. Candidates
+     * are the names sharing enough bigrams with the query to be within that distance.
+     */
+    public List<Student> findSimilar(String query, int limit) {
+        if (query == null || query.trim().isEmpty() || limit <= 0) return new ArrayList<>();
+        String needle = normalize(query.trim());
+        int maxEdits = needle.length() <= 4 ? 1 : 2;
+
+        // An edit changes at most three of the padded query's bigrams
+        String padded = " " + needle + " ";
+        long[] bigrams = new long[padded.length() - 1];
+        for (int i = 0; i < bigrams.length; i++) {
+            bigrams[i] = gram(padded, i, 2);
+        }
+        Arrays.sort(bigrams);
+        int distinct = 0;
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i < bigrams.length; i++) {
+            if (i > 0 && bigrams[i] == bigrams[i - 1]) continue;
+            distinct++;
+            PostingList list = postings.get(bigrams[i]);
+            if (list != null) lists.add(list);
+        }
+        int minShared = Math.max(1, distinct - 3 * maxEdits);
+
+        int[] shared = new int[documents.size()];
+        // Many students share a name, so each distinct name is measured once
+        Map<String, Integer> distanceByText = new HashMap<>();
+        List<int[]> ranked = new ArrayList<>(); // {document, distance}
+        for (PostingList list : lists) {
+            for (int i = 0; i < list.size; i++) {
+                int document = list.documents[i];
+                // Checked once, when the document reaches the threshold
+                if (++shared[document] != minShared) continue;
+
+                int distance = distanceByText.computeIfAbsent(texts.get(document),
+                        text -> closestDistance(needle, text, maxEdits));
+                if (distance <= maxEdits) ranked.add(new int[]{document, distance});
+            }
+        }
+        ranked.sort(Comparator.<int[]>comparingInt(match -> match[1]).thenComparingInt(match -> match[0]));
+
+        List<Student> results = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            results.add(documents.get(ranked.get(i)[0]));
+        }
+        return results;
+    }
+
+    // A gram or word repeated within one name is added once, as the posting list ignores duplicates
+    private void index(int document, String text) {
+        String padded = " " + text + " ";
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                postings.getOrCreate(gram(padded, i, n)).add(document);
+            }
+        }
+        for (String word : wordsOf(text)) {
+            words.computeIfAbsent(word, w -> new PostingList()).add(document);
+        }
+    }
+
+    private void unindex(int document, String text) {
+        String padded = " " + text + " ";
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                PostingList list = postings.get(gram(padded, i, n));
+                if (list != null) list.remove(document); // Emptied gram lists stay, as grams are few
+            }
+        }
+        for (String word : wordsOf(text)) {
+            PostingList list = words.get(word);
+            if (list != null && list.remove(document) && list.size == 0) {
+                words.remove(word);
+            }
+        }
+    }
+
+    // Packs a gram of up to three chars, with its length, into a non-zero long
+    private static long gram(String text, int start, int length) {
+        long key = length;
+        for (int i = start; i < start + length; i++) {
+            key = key << 16 | text.charAt(i);
+        }
+        return key;
+    }
+
+    // Each word of the name plus the whole name, so a prefix may span the space
+    private static List<String> wordsOf(String text) {
+        List<String> result = new ArrayList<>();
+        for (String word : text.split(" ")) {
+            if (!word.isEmpty()) result.add(word);
+        }
+        result.add(text);
+        return result;
+    }
+
+    private List<Student> collect(BitSet matches) {
+        List<Student> results = new ArrayList<>(matches.cardinality());
+        for (int document = matches.nextSetBit(0); document >= 0; document = matches.nextSetBit(document + 1)) {
+            results.add(documents.get(document));
+        }
+        return results;
+    }
+
+    private static int closestDistance(String query, String text, int maxEdits) {
+        int best = editDistance(query, text, maxEdits);
+        for (String word : text.split(" ")) {
+            if (best == 0) break;
+            best = Math.min(best, editDistance(query, word, maxEdits));
+        }
+        return best;
+    }
+
+    // Optimal string alignment distance (adjacent transpositions count as one edit), capped at maxEdits + 1
+    private static int editDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) return maxEdits + 1;
+
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    current[j] = Math.min(current[j], previous2[j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) return maxEdits + 1;
+
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], maxEdits + 1);
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    // Open-addressing map from a packed gram to its posting list, so indexing allocates no gram strings
+    private static final class GramTable {
+        private long[] keys = new long[1024];
+        private PostingList[] lists = new PostingList[1024];
+        private int size;
+
+        private PostingList get(long key) {
+            PostingList list = lists[slot(key)];
+            return list != null && list.size > 0 ? list : null;
+        }
+
+        private PostingList getOrCreate(long key) {
+            int slot = slot(key);
+            if (lists[slot] != null) return lists[slot];
+
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            lists[slot] = new PostingList();
+            size++;
+            return lists[slot];
+        }
+
+        // Linear probing; a zero key marks an empty slot
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            PostingList[] oldLists = lists;
+            keys = new long[oldKeys.length * 2];
+            lists = new PostingList[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int slot = slot(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    lists[slot] = oldLists[i];
+                }
+            }
+        }
+    }
+
+    // Sorted, duplicate-free list of document numbers
+    private static final class PostingList {
+        private int[] documents = new int[4];
+        private int size;
+
+        private void add(int document) {
+            // Documents are mostly added in increasing order, which appends
+            if (size > 0 && documents[size - 1] >= document) {
+                int position = Arrays.binarySearch(documents, 0, size, document);
+                if (position >= 0) return;
+                insertAt(-position - 1, document);
+                return;
+            }
+            insertAt(size, document);
+        }
+
+        private void insertAt(int position, int document) {
+            if (size == documents.length) documents = Arrays.copyOf(documents, size * 2);
+            System.arraycopy(documents, position, documents, position + 1, size - position);
+            documents[position] = document;
+            size++;
+        }
+
+        private boolean remove(int document) {
+            int position = Arrays.binarySearch(documents, 0, size, document);
+            if (position < 0) return false;
+
+            System.arraycopy(documents, position + 1, documents, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        private boolean contains(int document) {
+            return Arrays.binarySearch(documents, 0, size, document) >= 0;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package edu.ccrm.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.function.Function;
+
+/**
+ * One page of a listing, in store order or in the order of a sorted index. Only the
+ * page's own items are copied. The next page is fetched with the cursor, which names
+ * the last item returned rather than a count, so it stays valid while items are added.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final int total;
+    private final String nextCursor;
+
+    public Page(List<T> items, int offset, int total, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.offset = offset;
+        this.total = total;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() { return items; }
+    public int getOffset() { return offset; }
+    // Number of items in the store when the page was taken
+    public int getTotal() { return total; }
+    // Cursor for the following page, or null if this is the last one
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasNext() { return nextCursor != null; }
+    public boolean isEmpty() { return items.isEmpty(); }
+
+    // Copies items [offset, offset + limit) of an append-only list; key names an item in the cursor
+    static <T> Page<T> of(List<T> source, int offset, int limit, Function<T, String> key) {
+        if (offset < 0) throw new IllegalArgumentException("Offset cannot be negative");
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive");
+
+        int total = source.size();
+        int end = (int) Math.min((long) offset + limit, total);
+        List<T> items = new ArrayList<>(Math.max(end - offset, 0));
+        for (int i = offset; i < end; i++) {
+            items.add(source.get(i));
+        }
+
+        String nextCursor = end < total ? (end - 1) + ":" + key.apply(items.get(items.size() - 1)) : null;
+        return new Page<>(items, offset, total, nextCursor);
+    }
+
+    // The page after the cursor's item; a null cursor starts from the beginning
+    static <T> Page<T> after(List<T> source, String cursor, int limit, Function<T, String> key) {
+        if (cursor == null) return of(source, 0, limit, key);
+
+        int separator = cursor.indexOf(':');
+        int position;
+        try {
+            position = Integer.parseInt(cursor.substring(0, Math.max(separator, 0)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        // The key guards against a cursor taken from a different listing
+        if (position < 0 || position >= source.size()
+                || !key.apply(source.get(position)).equals(cursor.substring(separator + 1))) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return of(source, position + 1, limit, key);
+    }
+
+    /**
+     * The page after the cursor in a sorted index of item keys, in O(log n + limit). The
+     * cursor holds the sort key of the last item returned, so the page continues after
+     * it even if items were added or re-keyed since; its position is only for display.
+     */
+    static <K, T> Page<T> sorted(NavigableMap<String, K> index, String cursor, int limit, Function<K, T> lookup) {
+        if (limit <= 0) throw new IllegalArgumentException("Limit must be positive");
+
+        int offset = 0;
+        NavigableMap<String, K> tail = index;
+        if (cursor != null) {
+            int separator = cursor.indexOf(':');
+            try {
+                offset = Integer.parseInt(cursor.substring(0, Math.max(separator, 0))) + 1;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            if (offset <= 0) throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            tail = index.tailMap(cursor.substring(separator + 1), false);
+        }
+
+        List<T> items = new ArrayList<>(Math.min(limit, index.size()));
+        String lastKey = null;
+        for (Map.Entry<String, K> entry : tail.entrySet()) {
+            if (items.size() == limit) break;
+            items.add(lookup.apply(entry.getValue()));
+            lastKey = entry.getKey();
+        }
+
+        String nextCursor = lastKey != null && index.higherKey(lastKey) != null
+                ? (offset + items.size() - 1) + ":" + lastKey : null;
+        return new Page<>(items, offset, index.size(), nextCursor);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.SnapshotList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Multi-version read model for reports. It listens to all three services and keeps an
+ * immutable row per student, course and enrollment in copy-on-write lists. Every
+ * change replaces a row under one short lock. snapshot() hands out a ReadView of the
+ * current rows in O(1), and writes after it copy only the trie paths they touch. A
+ * report can then scan the view for as long as it likes without blocking enrollments,
+ * and see students, courses and enrollments as of the same change.
+ *
+ * Rows are copied when an event fires, but stored through DeferredUpdates, so events
+ * fired under an enrollment lock stripe do not wait on the model's lock. snapshot()
+ * stores the queued rows first.
+ *
+ * Changes are upserts keyed by ID, so replaying an event or refreshing from a store is
+ * harmless.
+ */
+public class ReadModel implements StudentListener, CourseListener, EnrollmentListener {
+    private final SnapshotList<ReadView.StudentRow> students = new SnapshotList<>();
+    private final SnapshotList<ReadView.CourseRow> courses = new SnapshotList<>();
+    private final SnapshotList<ReadView.EnrollmentRow> enrollments = new SnapshotList<>();
+    private final Map<String, Integer> studentPositions = new HashMap<>();
+    private final Map<CourseCode, Integer> coursePositions = new HashMap<>();
+    private final Map<String, Integer> enrollmentPositions = new HashMap<>();
+    private long version;
+    private final DeferredUpdates updates = new DeferredUpdates();
+
+    public ReadView snapshot() {
+        return updates.read(() ->
+                new ReadView(students.snapshot(), courses.snapshot(), enrollments.snapshot(), version));
+    }
+
+    /**
+     * Upserts a row for every entity in the stores. Events only cover changes made after
+     * the listener was added, so this is run after startup loading.
+     */
+    public void refresh(Collection<Student> allStudents, Collection<Course> allCourses,
+                        Collection<Enrollment> allEnrollments) {
+        updates.run(() -> {
+            for (Student student : allStudents) {
+                putStudent(new ReadView.StudentRow(student));
+            }
+            for (Course course : allCourses) {
+                putCourse(new ReadView.CourseRow(course));
+            }
+            for (Enrollment enrollment : allEnrollments) {
+                putEnrollment(enrollment, new ReadView.EnrollmentRow(enrollment));
+            }
+        });
+    }
+
+    @Override
+    public void onStudentAdded(Student student) {
+        queueStudent(student);
+    }
+
+    @Override
+    public void onStudentUpdated(Student student) {
+        queueStudent(student);
+    }
+
+    @Override
+    public void onStudentDeactivated(Student student) {
+        queueStudent(student);
+    }
+
+    @Override
+    public void onCourseAdded(Course course) {
+        queueCourse(course);
+    }
+
+    @Override
+    public void onCourseUpdated(Course course) {
+        queueCourse(course);
+    }
+
+    @Override
+    public void onCourseDeactivated(Course course) {
+        queueCourse(course);
+    }
+
+    @Override
+    public void onEnrolled(Enrollment enrollment) {
+        queueEnrollment(enrollment);
+    }
+
+    @Override
+    public void onUnenrolled(Enrollment enrollment) {
+        queueEnrollment(enrollment);
+    }
+
+    @Override
+    public void onGradeRecorded(Enrollment enrollment, Grade previous) {
+        queueEnrollment(enrollment);
+    }
+
+    @Override
+    public void onRestoredInactive(Enrollment enrollment) {
+        queueEnrollment(enrollment);
+    }
+
+    private void queueStudent(Student student) {
+        ReadView.StudentRow row = new ReadView.StudentRow(student);
+        updates.add(() -> putStudent(row));
+    }
+
+    private void queueCourse(Course course) {
+        ReadView.CourseRow row = new ReadView.CourseRow(course);
+        updates.add(() -> putCourse(row));
+    }
+
+    private void queueEnrollment(Enrollment enrollment) {
+        ReadView.EnrollmentRow row = new ReadView.EnrollmentRow(enrollment);
+        updates.add(() -> putEnrollment(enrollment, row));
+    }
+
+    private int putStudent(ReadView.StudentRow row) {
+        return put(students, studentPositions, row.getId(), row);
+    }
+
+    private int putCourse(ReadView.CourseRow row) {
+        return put(courses, coursePositions, row.getCode(), row);
+    }
+
+    private void putEnrollment(Enrollment enrollment, ReadView.EnrollmentRow row) {
+        // Adds the student or course if it predates the listener and was not refreshed
+        Integer studentPosition = studentPositions.get(row.getStudentId());
+        if (studentPosition == null) studentPosition = putStudent(new ReadView.StudentRow(enrollment.getStudent()));
+        Integer coursePosition = coursePositions.get(row.getCourseCode());
+        if (coursePosition == null) coursePosition = putCourse(new ReadView.CourseRow(enrollment.getCourse()));
+
+        put(enrollments, enrollmentPositions, row.getId(), row.at(studentPosition, coursePosition));
+    }
+
+    private <K, R> int put(SnapshotList<R> rows, Map<K, Integer> positions, K key, R row) {
+        version++;
+        Integer position = positions.get(key);
+        if (position != null) {
+            rows.set(position, row);
+            return position;
+        }
+
+        positions.put(key, rows.size());
+        rows.add(row);
+        return rows.size() - 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,207 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Name;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Point-in-time, immutable view of students, courses and enrollments, taken from a
+ * ReadModel. Rows are copies of the entities' fields, so the view does not change
+ * when they do, and it reflects the same moment for all three stores. It can be
+ * scanned at leisure from any thread without holding up writers. Rows carry every
+ * field the CSV exports write, so an export can be taken from a single view.
+ */
+public class ReadView {
+    private final List<StudentRow> students;
+    private final List<CourseRow> courses;
+    private final List<EnrollmentRow> enrollments;
+    private final long version;
+
+    ReadView(List<StudentRow> students, List<CourseRow> courses, List<EnrollmentRow> enrollments, long version) {
+        this.students = students;
+        this.courses = courses;
+        this.enrollments = enrollments;
+        this.version = version;
+    }
+
+    // Unmodifiable lists, in the order the read model first saw each entity
+    public List<StudentRow> getStudents() { return students; }
+    public List<CourseRow> getCourses() { return courses; }
+    public List<EnrollmentRow> getEnrollments() { return enrollments; }
+    // Number of changes the read model had applied when the view was taken
+    public long getVersion() { return version; }
+
+    public StudentRow getStudent(EnrollmentRow enrollment) {
+        return students.get(enrollment.studentPosition);
+    }
+
+    public CourseRow getCourse(EnrollmentRow enrollment) {
+        return courses.get(enrollment.coursePosition);
+    }
+
+    // Linear scans, for single-student reports
+    public StudentRow findStudent(String studentId) {
+        for (StudentRow student : students) {
+            if (student.id.equals(studentId)) return student;
+        }
+        return null;
+    }
+
+    public List<EnrollmentRow> getEnrollmentsOf(String studentId) {
+        List<EnrollmentRow> result = new ArrayList<>();
+        for (EnrollmentRow enrollment : enrollments) {
+            if (enrollment.studentId.equals(studentId)) result.add(enrollment);
+        }
+        return result;
+    }
+
+    public static final class StudentRow {
+        private final String id;
+        private final String regNo;
+        private final Name fullName;
+        private final String email;
+        private final StudentStatus status;
+        private final boolean active;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+
+        StudentRow(Student student) {
+            this.id = student.getId();
+            this.regNo = student.getRegNo();
+            this.fullName = student.getFullName();
+            this.email = student.getEmail();
+            this.status = student.getStatus();
+            this.active = student.isActive();
+            this.createdAt = student.getCreatedAt();
+            this.updatedAt = student.getUpdatedAt();
+        }
+
+        public String getId() { return id; }
+        public String getRegNo() { return regNo; }
+        public Name getFullName() { return fullName; }
+        public String getEmail() { return email; }
+        public StudentStatus getStatus() { return status; }
+        public boolean isActive() { return active; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+    }
+
+    public static final class CourseRow {
+        private final CourseCode code;
+        private final String title;
+        private final int credits;
+        private final String department;
+        private final Semester semester;
+        private final InstructorRow instructor;
+        private final boolean active;
+        private final int capacity;
+        private final LocalDateTime updatedAt;
+
+        CourseRow(Course course) {
+            this.code = course.getCode();
+            this.title = course.getTitle();
+            this.credits = course.getCredits();
+            this.department = course.getDepartment();
+            this.semester = course.getSemester();
+            this.instructor = course.getInstructor() != null ? new InstructorRow(course.getInstructor()) : null;
+            this.active = course.isActive();
+            this.capacity = course.getCapacity();
+            this.updatedAt = course.getUpdatedAt();
+        }
+
+        public CourseCode getCode() { return code; }
+        public String getTitle() { return title; }
+        public int getCredits() { return credits; }
+        public String getDepartment() { return department; }
+        public Semester getSemester() { return semester; }
+        public String getInstructorId() { return instructor != null ? instructor.id : null; }
+        // Null if the course has no instructor
+        public InstructorRow getInstructor() { return instructor; }
+        public boolean isActive() { return active; }
+        public int getCapacity() { return capacity; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+    }
+
+    // The instructor of a course as of the course's row
+    public static final class InstructorRow {
+        private final String id;
+        private final Name fullName;
+        private final String email;
+        private final String employeeId;
+        private final String department;
+
+        InstructorRow(Instructor instructor) {
+            this.id = instructor.getId();
+            this.fullName = instructor.getFullName();
+            this.email = instructor.getEmail();
+            this.employeeId = instructor.getEmployeeId();
+            this.department = instructor.getDepartment();
+        }
+
+        public String getId() { return id; }
+        public Name getFullName() { return fullName; }
+        public String getEmail() { return email; }
+        public String getEmployeeId() { return employeeId; }
+        public String getDepartment() { return department; }
+    }
+
+    public static final class EnrollmentRow {
+        private final String id;
+        private final String studentId;
+        private final CourseCode courseCode;
+        private final LocalDateTime enrollmentDate;
+        private final Grade grade;
+        private final boolean active;
+        private final LocalDateTime updatedAt;
+        // Positions of the student and course rows, which never move
+        private final int studentPosition;
+        private final int coursePosition;
+
+        // Positions are set by at() once the read model has placed the student and course
+        EnrollmentRow(Enrollment enrollment) {
+            this.id = enrollment.getId();
+            this.studentId = enrollment.getStudent().getId();
+            this.courseCode = enrollment.getCourse().getCode();
+            this.enrollmentDate = enrollment.getEnrollmentDate();
+            this.grade = enrollment.getGrade();
+            this.active = enrollment.isActive();
+            this.updatedAt = enrollment.getUpdatedAt();
+            this.studentPosition = -1;
+            this.coursePosition = -1;
+        }
+
+        private EnrollmentRow(EnrollmentRow row, int studentPosition, int coursePosition) {
+            this.id = row.id;
+            this.studentId = row.studentId;
+            this.courseCode = row.courseCode;
+            this.enrollmentDate = row.enrollmentDate;
+            this.grade = row.grade;
+            this.active = row.active;
+            this.updatedAt = row.updatedAt;
+            this.studentPosition = studentPosition;
+            this.coursePosition = coursePosition;
+        }
+
+        EnrollmentRow at(int studentPosition, int coursePosition) {
+            return new EnrollmentRow(this, studentPosition, coursePosition);
+        }
+
+        public String getId() { return id; }
+        public String getStudentId() { return studentId; }
+        public CourseCode getCourseCode() { return courseCode; }
+        public LocalDateTime getEnrollmentDate() { return enrollmentDate; }
+        public Grade getGrade() { return grade; }
+        public boolean isActive() { return active; }
+        public LocalDateTime getUpdatedAt() { return updatedAt; }
+        int getCoursePosition() { return coursePosition; }
+    }
+}
\ No newline at end of file
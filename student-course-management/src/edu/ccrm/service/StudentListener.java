@@ -0,0 +1,12 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Student;
+
+/**
+ * Callback for student changes, fired after the change has been applied.
+ */
+public interface StudentListener {
+    default void onStudentAdded(Student student) {}
+    default void onStudentUpdated(Student student) {}
+    default void onStudentDeactivated(Student student) {}
+}
\ No newline at end of file
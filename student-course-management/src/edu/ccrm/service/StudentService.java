@@ -1,15 +1,26 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.Student;
+import java.util.Collection;
 import java.util.List;
 
 public interface StudentService {
     Student addStudent(Student student);
+    BatchResult<Student> addStudents(Collection<Student> students);
+    BatchResult<Student> restoreStudents(Collection<Student> students);
     Student getStudent(String id);
+    Student getStudentByRegNo(String regNo);
     List<Student> getAllStudents();
+    List<Student> viewAllStudents();
+    Page<Student> getStudents(int offset, int limit);
+    Page<Student> getStudentsAfter(String cursor, int limit);
+    Page<Student> getStudentsByName(String cursor, int limit);
     Student updateStudent(Student student);
     boolean deactivateStudent(String id);
     List<Student> findStudentsByName(String name);
+    List<Student> findStudentsByNamePrefix(String prefix);
+    List<Student> findStudentsBySimilarName(String name, int limit);
     void printStudentProfile(String id);
     void printStudentTranscript(String id);
+    void addListener(StudentListener listener);
 }
\ No newline at end of file
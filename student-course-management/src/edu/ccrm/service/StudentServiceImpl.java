@@ -3,16 +3,42 @@ package edu.ccrm.service;
 import edu.ccrm.domain.Student;
 import edu.ccrm.util.Validator;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class StudentServiceImpl implements StudentService {
-    private final List<Student> students;
+    private final ArrayList<Student> students;
+    // Primary index: student ID -> position in the students list
+    private Map<String, Integer> positionById;
+    // Unique secondary index: registration number -> student ID
+    private Map<String, String> idByRegNo;
+    // Registration number each student is currently indexed under (regNo is mutable on Student)
+    private Map<String, String> regNoById;
+    // Number of entries the index maps were last presized for by a batch insert
+    private int indexCapacity;
+    // n-gram and prefix index over names, for searches that do not scan every student
+    private final NameSearchIndex nameIndex;
+    // Sort index: name, then ID -> position, for listings in name order
+    private final TreeMap<String, Integer> positionByName;
     private final Validator validator;
+    private final List<StudentListener> listeners;
 
     public StudentServiceImpl(Validator validator) {
         this.students = new ArrayList<>();
+        this.positionById = new HashMap<>();
+        this.idByRegNo = new HashMap<>();
+        this.regNoById = new HashMap<>();
+        this.nameIndex = new NameSearchIndex();
+        this.positionByName = new TreeMap<>();
         this.validator = validator;
+        this.listeners = new CopyOnWriteArrayList<>();
     }
 
     @Override
@@ -21,29 +47,97 @@ public class StudentServiceImpl implements StudentService {
         if (!validator.validateStudent(student)) throw new IllegalArgumentException("Invalid student data");
 
         // Check if student with same ID already exists
-        if (students.stream().anyMatch(s -> s.getId().equals(student.getId()))) {
+        if (positionById.containsKey(student.getId())) {
             throw new IllegalArgumentException("Student with ID " + student.getId() + " already exists");
         }
 
         // Check if student with same registration number already exists
-        if (students.stream().anyMatch(s -> s.getRegNo().equals(student.getRegNo()))) {
+        if (idByRegNo.containsKey(student.getRegNo())) {
             throw new IllegalArgumentException("Student with registration number " + student.getRegNo() + " already exists");
         }
 
+        positionById.put(student.getId(), students.size());
+        idByRegNo.put(student.getRegNo(), student.getId());
+        regNoById.put(student.getId(), student.getRegNo());
+        positionByName.put(nameKey(student), students.size());
         students.add(student);
+        nameIndex.put(student);
+
+        for (StudentListener listener : listeners) {
+            listener.onStudentAdded(student);
+        }
         return student;
     }
 
+    @Override
+    public BatchResult<Student> addStudents(Collection<Student> batch) {
+        return insertAll(batch, true);
+    }
+
+    // Students from a snapshot were validated when first added, so only uniqueness is checked
+    @Override
+    public BatchResult<Student> restoreStudents(Collection<Student> batch) {
+        return insertAll(batch, false);
+    }
+
+    private BatchResult<Student> insertAll(Collection<Student> batch, boolean validate) {
+        if (batch == null) throw new IllegalArgumentException("Students cannot be null");
+
+        BatchResult<Student> result = new BatchResult<>(batch.size());
+        Set<String> batchIds = new HashSet<>();
+        Set<String> batchRegNos = new HashSet<>();
+
+        // Single pass: validate and check uniqueness against the store and the batch itself
+        for (Student student : batch) {
+            if (student == null) {
+                result.reject(null, "Student cannot be null");
+            } else if (validate && !validator.validateStudent(student)) {
+                result.reject(student, "Invalid student data");
+            } else if (positionById.containsKey(student.getId()) || !batchIds.add(student.getId())) {
+                result.reject(student, "Student with ID " + student.getId() + " already exists");
+            } else if (idByRegNo.containsKey(student.getRegNo()) || !batchRegNos.add(student.getRegNo())) {
+                batchIds.remove(student.getId());
+                result.reject(student, "Student with registration number " + student.getRegNo() + " already exists");
+            } else {
+                result.accept(student);
+            }
+        }
+
+        ensureIndexCapacity(students.size() + result.getAcceptedCount());
+        for (BatchResult.Outcome<Student> outcome : result.getOutcomes()) {
+            if (!outcome.isAccepted()) continue;
+
+            Student student = outcome.getItem();
+            positionById.put(student.getId(), students.size());
+            idByRegNo.put(student.getRegNo(), student.getId());
+            regNoById.put(student.getId(), student.getRegNo());
+            positionByName.put(nameKey(student), students.size());
+            students.add(student);
+            nameIndex.put(student);
+
+            for (StudentListener listener : listeners) {
+                listener.onStudentAdded(student);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Student getStudent(String id) {
         if (id == null || id.trim().isEmpty()) {
             throw new IllegalArgumentException("Student ID cannot be null or empty");
         }
 
-        return students.stream()
-                .filter(s -> s.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+        Integer position = positionById.get(id);
+        return position != null ? students.get(position) : null;
+    }
+
+    @Override
+    public Student getStudentByRegNo(String regNo) {
+        if (regNo == null || regNo.trim().isEmpty()) return null;
+
+        String id = idByRegNo.get(regNo);
+        return id != null ? getStudent(id) : null;
     }
 
     @Override
@@ -51,24 +145,63 @@ public class StudentServiceImpl implements StudentService {
         return new ArrayList<>(students); // Defensive copy
     }
 
+    // Read-only live view in registration order, for callers that only iterate or count
+    @Override
+    public List<Student> viewAllStudents() {
+        return Collections.unmodifiableList(students);
+    }
+
+    @Override
+    public Page<Student> getStudents(int offset, int limit) {
+        return Page.of(students, offset, limit, Student::getId);
+    }
+
+    @Override
+    public Page<Student> getStudentsAfter(String cursor, int limit) {
+        return Page.after(students, cursor, limit, Student::getId);
+    }
+
+    // Keyset pages in name order, as Comparators.STUDENT_BY_NAME sorts; a null cursor starts at the first
+    @Override
+    public Page<Student> getStudentsByName(String cursor, int limit) {
+        return Page.sorted(positionByName, cursor, limit, students::get);
+    }
+
+    // Name first, then ID to tell equal names apart; '\0' sorts a name before any longer one
+    private static String nameKey(Student student) {
+        return student.getFullName().toString() + '\0' + student.getId();
+    }
+
     @Override
     public Student updateStudent(Student student) {
         if (student == null) throw new IllegalArgumentException("Student cannot be null");
         if (!validator.validateStudent(student)) throw new IllegalArgumentException("Invalid student data");
 
-        int index = -1;
-        for (int i = 0; i < students.size(); i++) {
-            if (students.get(i).getId().equals(student.getId())) {
-                index = i;
-                break;
-            }
+        Integer index = positionById.get(student.getId());
+        if (index == null) {
+            throw new IllegalArgumentException("Student with ID " + student.getId() + " not found");
         }
 
-        if (index == -1) {
-            throw new IllegalArgumentException("Student with ID " + student.getId() + " not found");
+        // Re-key the registration number index if it changed
+        String oldRegNo = regNoById.get(student.getId());
+        if (!student.getRegNo().equals(oldRegNo)) {
+            String owner = idByRegNo.get(student.getRegNo());
+            if (owner != null && !owner.equals(student.getId())) {
+                throw new IllegalArgumentException("Student with registration number " + student.getRegNo() + " already exists");
+            }
+            idByRegNo.remove(oldRegNo);
+            idByRegNo.put(student.getRegNo(), student.getId());
+            regNoById.put(student.getId(), student.getRegNo());
         }
 
+        positionByName.remove(nameKey(students.get(index)));
+        positionByName.put(nameKey(student), index);
         students.set(index, student);
+        nameIndex.put(student);
+
+        for (StudentListener listener : listeners) {
+            listener.onStudentUpdated(student);
+        }
         return student;
     }
 
@@ -78,17 +211,53 @@ public class StudentServiceImpl implements StudentService {
         if (student == null) return false;
 
         student.setActive(false);
+        for (StudentListener listener : listeners) {
+            listener.onStudentDeactivated(student);
+        }
         return true;
     }
 
+    @Override
+    public void addListener(StudentListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+        listeners.add(listener);
+    }
+
     @Override
     public List<Student> findStudentsByName(String name) {
         if (name == null || name.trim().isEmpty()) return new ArrayList<>();
 
-        final String searchName = name.toLowerCase();
-        return students.stream()
-                .filter(s -> s.getFullName().toString().toLowerCase().contains(searchName))
-                .collect(Collectors.toList());
+        return nameIndex.findBySubstring(name);
+    }
+
+    @Override
+    public List<Student> findStudentsByNamePrefix(String prefix) {
+        if (prefix == null || prefix.trim().isEmpty()) return new ArrayList<>();
+
+        return nameIndex.findByPrefix(prefix.trim());
+    }
+
+    @Override
+    public List<Student> findStudentsBySimilarName(String name, int limit) {
+        return nameIndex.findSimilar(name, limit);
+    }
+
+    // Grows the list and index maps at most once per batch instead of rehashing repeatedly
+    private void ensureIndexCapacity(int expectedSize) {
+        if (expectedSize <= indexCapacity) return;
+
+        int capacity = Math.max(expectedSize, indexCapacity * 2);
+        students.ensureCapacity(capacity);
+        positionById = presized(positionById, capacity);
+        idByRegNo = presized(idByRegNo, capacity);
+        regNoById = presized(regNoById, capacity);
+        indexCapacity = capacity;
+    }
+
+    private static <K, V> Map<K, V> presized(Map<K, V> map, int expectedSize) {
+        Map<K, V> resized = new HashMap<>((int) (expectedSize / 0.75f) + 1);
+        resized.putAll(map);
+        return resized;
     }
 
     @Override
@@ -0,0 +1,52 @@
+package edu.ccrm.util;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Append-only list that allows lock-free reads concurrently with a writer.
+ * Appends are serialized on the list; get/size/iteration never block.
+ */
+public class AppendOnlyList<T> extends AbstractList<T> implements RandomAccess {
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Object[][] chunks = new Object[4][];
+    private volatile int size;
+
+    @Override
+    public synchronized boolean add(T element) {
+        int index = size;
+        int chunk = index >>> CHUNK_SHIFT;
+        Object[][] current = chunks;
+
+        if (chunk == current.length) {
+            Object[][] grown = new Object[current.length * 2][];
+            System.arraycopy(current, 0, grown, 0, current.length);
+            chunks = grown;
+            current = grown;
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new Object[CHUNK_SIZE];
+        }
+
+        current[chunk][index & CHUNK_MASK] = element;
+        size = index + 1; // publishes the element to readers
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
\ No newline at end of file
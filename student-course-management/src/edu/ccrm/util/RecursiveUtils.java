@@ -1,30 +1,49 @@
 package edu.ccrm.util;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class RecursiveUtils {
 
     /**
-     * Recursively calculates the total size of a directory in bytes
+     * Recursively calculates the total size of a directory in bytes. Subdirectories are
+     * measured in parallel on the common fork/join pool, with one attribute read per entry.
      */
     public static long calculateDirectorySize(Path directory) throws IOException {
         if (directory == null || !Files.isDirectory(directory)) return 0;
 
-        try (Stream<Path> stream = Files.walk(directory)) {
-            return stream
-                    .filter(Files::isRegularFile)
-                    .mapToLong(path -> {
-                        try {
-                            return Files.size(path);
-                        } catch (IOException e) {
-                            return 0;
-                        }
-                    })
-                    .sum();
+        try {
+            return ForkJoinPool.commonPool().invoke(new DirectorySizeTask(directory));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Deletes a file, or a directory and everything under it
+     */
+    public static void deleteRecursively(Path path) throws IOException {
+        if (path == null || !Files.exists(path, LinkOption.NOFOLLOW_LINKS)) return;
+
+        List<Path> paths;
+        try (Stream<Path> stream = Files.walk(path)) {
+            // Children sort after their parents, so reversed order deletes them first
+            paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+        for (Path entry : paths) {
+            Files.delete(entry);
         }
     }
 
@@ -61,4 +80,47 @@ public class RecursiveUtils {
             });
         }
     }
+
+    // Sums the regular files of one directory and forks a task per subdirectory
+    private static final class DirectorySizeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+
+        private DirectorySizeTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected Long compute() {
+            long size = 0;
+            List<DirectorySizeTask> subdirectories = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    BasicFileAttributes attrs;
+                    try {
+                        attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    } catch (IOException e) {
+                        continue; // Deleted or unreadable since it was listed; counts as 0
+                    }
+
+                    if (attrs.isDirectory()) {
+                        DirectorySizeTask task = new DirectorySizeTask(entry);
+                        task.fork();
+                        subdirectories.add(task);
+                    } else if (attrs.isRegularFile()) {
+                        size += attrs.size();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (DirectorySizeTask task : subdirectories) {
+                size += task.join();
+            }
+            return size;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package edu.ccrm.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Growable list with O(1) immutable snapshots. Elements live in a 32-way trie. A
+ * snapshot keeps the current root, and later writes copy only the path from the root to
+ * the slot they change (at most four 32-slot arrays for a million elements). Nodes
+ * created since the last snapshot are not shared yet, so they are written in place, and
+ * bulk loads between snapshots cost about the same as an ArrayList.
+ *
+ * Writes need external synchronization. Snapshots may be read from any thread once
+ * handed over, e.g. through the same lock.
+ */
+public class SnapshotList<T> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private Node root = new Node(null);
+    private int shift; // Bits of the index handled below the root
+    private int size;
+    // Nodes carrying this token belong to no snapshot and may be written in place
+    private Object owner = new Object();
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) leafFor(root, shift, index).slots[index & MASK];
+    }
+
+    public void add(T element) {
+        // A full trie grows a level, with the old root as its first child
+        if (size == 1 << (shift + BITS)) {
+            Node grown = new Node(owner);
+            grown.slots[0] = root;
+            root = grown;
+            shift += BITS;
+        }
+        root = assoc(root, shift, size, element);
+        size++;
+    }
+
+    public void set(int index, T element) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        root = assoc(root, shift, index, element);
+    }
+
+    // Freezes the current contents; the returned list never changes
+    public List<T> snapshot() {
+        owner = new Object();
+        return new Snapshot<>(root, shift, size);
+    }
+
+    private Node assoc(Node node, int level, int index, Object element) {
+        Node editable = node == null ? new Node(owner)
+                : node.owner == owner ? node
+                : new Node(owner, node.slots.clone());
+        int slot = (index >>> level) & MASK;
+        if (level == 0) {
+            editable.slots[slot] = element;
+        } else {
+            editable.slots[slot] = assoc((Node) editable.slots[slot], level - BITS, index, element);
+        }
+        return editable;
+    }
+
+    private static Node leafFor(Node node, int shift, int index) {
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Node) node.slots[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private static final class Node {
+        private final Object owner;
+        private final Object[] slots;
+
+        private Node(Object owner) {
+            this(owner, new Object[WIDTH]);
+        }
+
+        private Node(Object owner, Object[] slots) {
+            this.owner = owner;
+            this.slots = slots;
+        }
+    }
+
+    private static final class Snapshot<T> extends AbstractList<T> implements RandomAccess {
+        private final Node root;
+        private final int shift;
+        private final int size;
+
+        private Snapshot(Node root, int shift, int size) {
+            this.root = root;
+            this.shift = shift;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (T) leafFor(root, shift, index).slots[index & MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
\ No newline at end of file
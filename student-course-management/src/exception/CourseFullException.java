@@ -0,0 +1,16 @@
+package edu.ccrm.exception;
+
+public class CourseFullException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int waitlistPosition;
+
+    public CourseFullException(String message, int waitlistPosition) {
+        super(message);
+        this.waitlistPosition = waitlistPosition;
+    }
+
+    public int getWaitlistPosition() {
+        return waitlistPosition;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package edu.ccrm;
+
+import java.util.Objects;
+
+/**
+ * Assertions for the tests run by TestRunner. A failed assertion throws AssertionError.
+ */
+public final class Assert {
+    private Assert() {}
+
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    public static void assertTrue(boolean condition, String message) {
+        if (!condition) fail(message);
+    }
+
+    public static void assertFalse(boolean condition, String message) {
+        if (condition) fail(message);
+    }
+
+    public static void assertEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            fail(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    public static void assertEquals(long expected, long actual, String message) {
+        if (expected != actual) {
+            fail(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    public static void assertNull(Object actual, String message) {
+        if (actual != null) fail(message + ": expected null but was <" + actual + ">");
+    }
+
+    public static void assertNotNull(Object actual, String message) {
+        if (actual == null) fail(message + ": was null");
+    }
+
+    // Returns the exception so the caller can check its details
+    public static <T extends Throwable> T assertThrows(Class<T> expected, ThrowingRunnable action) {
+        try {
+            action.run();
+        } catch (Throwable e) {
+            if (expected.isInstance(e)) return expected.cast(e);
+            throw new AssertionError("Expected " + expected.getSimpleName() + " but got " + e, e);
+        }
+        throw new AssertionError("Expected " + expected.getSimpleName() + " but nothing was thrown");
+    }
+
+    public static void fail(String message) {
+        throw new AssertionError(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package edu.ccrm;
+
+import edu.ccrm.io.ImportExportServiceTest;
+import edu.ccrm.io.JournalServiceTest;
+import edu.ccrm.io.SnapshotServiceTest;
+import edu.ccrm.service.EnrollmentServiceImplTest;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Runs the tests, since the project has no build tool or test library. Every public
+ * no-argument method named test* is run on a fresh instance of its class. Exits with
+ * status 1 if any test fails.
+ *
+ * From student-course-management:
+ *   javac -d bin/test $(find src test -name '*.java') && java -cp bin/test edu.ccrm.TestRunner
+ */
+public final class TestRunner {
+    private static final Class<?>[] TEST_CLASSES = {
+            EnrollmentServiceImplTest.class,
+            ImportExportServiceTest.class,
+            SnapshotServiceTest.class,
+            JournalServiceTest.class,
+    };
+
+    public static void main(String[] args) throws Exception {
+        int passed = 0;
+        int failed = 0;
+
+        for (Class<?> testClass : TEST_CLASSES) {
+            for (Method method : testClass.getDeclaredMethods()) {
+                if (!method.getName().startsWith("test") || method.getParameterCount() != 0
+                        || !Modifier.isPublic(method.getModifiers())) continue;
+
+                String name = testClass.getSimpleName() + "." + method.getName();
+                try {
+                    method.invoke(testClass.getDeclaredConstructor().newInstance());
+                    passed++;
+                    System.out.println("PASS " + name);
+                } catch (InvocationTargetException e) {
+                    failed++;
+                    System.out.println("FAIL " + name + ": " + e.getCause());
+                    e.getCause().printStackTrace(System.out);
+                }
+            }
+        }
+
+        System.out.println(passed + " passed, " + failed + " failed");
+        if (failed > 0) System.exit(1);
+    }
+}
\ No newline at end of file
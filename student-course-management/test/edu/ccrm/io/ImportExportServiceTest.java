@@ -0,0 +1,200 @@
+package edu.ccrm.io;
+
+import static edu.ccrm.Assert.*;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Name;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.ReadModel;
+import edu.ccrm.service.StudentServiceImpl;
+import edu.ccrm.util.Validator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ImportExportServiceTest {
+    private final Validator validator = new Validator();
+
+    public void testExportImportRoundTrip() throws Exception {
+        assertRoundTrip(0);
+    }
+
+    public void testParallelExportImportRoundTrip() throws Exception {
+        assertRoundTrip(4);
+    }
+
+    // Seats in a full course go to the earliest rows however the file is split among workers
+    public void testParallelEnrollmentImportMatchesSequential() throws Exception {
+        Path dir = Files.createTempDirectory("ccrm-import");
+        try {
+            Path file = dir.resolve("enrollments.csv");
+            // An unused trailing field makes the file span several parse chunks
+            String padding = String.join("", Collections.nCopies(1000, "x"));
+            List<String> lines = new ArrayList<>();
+            lines.add("ID,StudentID,CourseCode,EnrollmentDate,Grade,Active");
+            for (int i = 0; i < 4000; i++) {
+                lines.add("E" + i + ",S" + (i % 500) + ",CS" + (i / 500) + ",2024-09-01 10:00:00,,true," + padding);
+            }
+            Files.write(file, lines);
+
+            Services sequential = populated();
+            ImportReport sequentialReport = sequential.io.importEnrollmentsFromCSV(file);
+            Services parallel = populated();
+            ImportReport parallelReport = parallel.io.importEnrollmentsFromCSV(file, 4);
+
+            // Each course has 500 rows for 498 seats
+            assertEquals(3984, sequentialReport.getRowsImported(), "sequential rows imported");
+            assertEquals(16, sequentialReport.getRowsRejected(), "sequential rows rejected");
+            assertEquals(3984, parallelReport.getRowsImported(), "parallel rows imported");
+            for (int i = 0; i < 4000; i++) {
+                boolean expected = i % 500 < 498;
+                assertEquals(expected, sequential.enrollments.getEnrollment("E" + i) != null, "E" + i + " imported sequentially");
+                assertEquals(expected, parallel.enrollments.getEnrollment("E" + i) != null, "E" + i + " imported in parallel");
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    public void testMalformedRowsAreRejected() throws Exception {
+        Path dir = Files.createTempDirectory("ccrm-import");
+        try {
+            Path file = dir.resolve("enrollments.csv");
+            List<String> lines = new ArrayList<>();
+            lines.add("ID,StudentID,CourseCode,EnrollmentDate,Grade,Active");
+            lines.add("E1,S1,CS1,2024-09-01 10:00:00,A,true");
+            lines.add("E2,NOBODY,CS1,2024-09-01 10:00:00,,true");
+            lines.add("E3,S2,CS1,not a date,,true");
+            lines.add("E4,S3");
+            Files.write(file, lines);
+
+            Services system = populated();
+            ImportReport report = system.io.importEnrollmentsFromCSV(file);
+
+            assertEquals(4, report.getRowsProcessed(), "rows processed");
+            assertEquals(1, report.getRowsImported(), "rows imported");
+            assertEquals(3, report.getRowsRejected(), "rows rejected");
+            assertEquals(Grade.A, system.enrollments.getEnrollment("E1").getGrade(), "E1 grade");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private void assertRoundTrip(int workers) throws Exception {
+        StudentServiceImpl students = new StudentServiceImpl(validator);
+        CourseServiceImpl courses = new CourseServiceImpl();
+        EnrollmentServiceImpl enrollments = new EnrollmentServiceImpl();
+
+        Instructor instructor = new Instructor("I1", new Name("Ada", "Lovelace"), "ada@example.edu", "EMP1", "Computer Science");
+        students.addStudent(new Student("S1", new Name("John", "Doe"), "john@example.edu", "R1"));
+        students.addStudent(new Student("S2", new Name("Jane", "Smith"), "jane@example.edu", "R2"));
+        students.deactivateStudent("S2");
+        courses.addCourse(new Course.Builder(new CourseCode("CS", "101"))
+                .title("Programming, Part 1").credits(3).department("Computer Science")
+                .semester(Semester.FALL).capacity(30).instructor(instructor).build());
+        courses.addCourse(new Course.Builder(new CourseCode("MA", "201"))
+                .title("Calculus \"II\"").credits(4).department("Mathematics")
+                .semester(Semester.SPRING).build());
+
+        ReadModel readModel = new ReadModel();
+        readModel.refresh(students.viewAllStudents(), courses.viewAllCourses(), enrollments.viewAllEnrollments());
+        students.addListener(readModel);
+        courses.addListener(readModel);
+        enrollments.addListener(readModel);
+
+        Enrollment graded = enrollments.enrollStudent(students.getStudent("S1"), courses.getCourse("CS101"));
+        enrollments.recordGrade(graded.getId(), Grade.B);
+        Enrollment dropped = enrollments.enrollStudent(students.getStudent("S1"), courses.getCourse("MA201"));
+        enrollments.unenrollStudent(dropped.getId());
+        courses.deactivateCourse("MA201");
+
+        Path dir = Files.createTempDirectory("ccrm-export");
+        try {
+            ImportExportService exporter = new ImportExportService(students, courses, enrollments, readModel, validator);
+            if (workers > 0) {
+                exporter.exportAllData(dir, workers);
+            } else {
+                exporter.exportAllData(dir);
+            }
+
+            Services restored = new Services();
+            if (workers > 0) {
+                restored.io.importStudentsFromCSV(dir.resolve("students.csv"), workers);
+                restored.io.importCoursesFromCSV(dir.resolve("courses.csv"), workers);
+                restored.io.importEnrollmentsFromCSV(dir.resolve("enrollments.csv"), workers);
+            } else {
+                restored.io.importStudentsFromCSV(dir.resolve("students.csv"));
+                restored.io.importCoursesFromCSV(dir.resolve("courses.csv"));
+                restored.io.importEnrollmentsFromCSV(dir.resolve("enrollments.csv"));
+            }
+
+            Student john = restored.students.getStudent("S1");
+            assertEquals(new Name("John", "Doe"), john.getFullName(), "S1 name");
+            assertEquals("john@example.edu", john.getEmail(), "S1 email");
+            assertTrue(john.isActive(), "S1 active");
+            assertFalse(restored.students.getStudent("S2").isActive(), "S2 active");
+
+            Course programming = restored.courses.getCourse("CS101");
+            assertEquals("Programming, Part 1", programming.getTitle(), "CS101 title");
+            assertEquals(30, programming.getCapacity(), "CS101 capacity");
+            assertEquals(1, programming.getReservedSeats(), "CS101 reserved seats");
+            assertNotNull(programming.getInstructor(), "CS101 instructor");
+            assertEquals("EMP1", programming.getInstructor().getEmployeeId(), "CS101 instructor employee ID");
+            Course calculus = restored.courses.getCourse("MA201");
+            assertEquals("Calculus \"II\"", calculus.getTitle(), "MA201 title");
+            assertFalse(calculus.isActive(), "MA201 active");
+
+            Enrollment restoredGraded = restored.enrollments.getEnrollment(graded.getId());
+            assertEquals(Grade.B, restoredGraded.getGrade(), "grade");
+            assertTrue(restoredGraded.isActive(), "graded enrollment active");
+            assertEquals(graded.getEnrollmentDate().truncatedTo(ChronoUnit.SECONDS),
+                    restoredGraded.getEnrollmentDate(), "enrollment date");
+            assertFalse(restored.enrollments.getEnrollment(dropped.getId()).isActive(), "dropped enrollment active");
+            assertEquals(graded.getStudent().calculateGPA(), john.calculateGPA(), "S1 GPA");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted((a, b) -> b.compareTo(a))::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    // 500 students and eight 2-credit, 498-seat courses to import enrollments into
+    private Services populated() {
+        Services services = new Services();
+        for (int i = 0; i < 500; i++) {
+            services.students.addStudent(new Student("S" + i, new Name("First" + i, "Last" + i), "s" + i + "@example.edu", "R" + i));
+        }
+        for (int i = 0; i < 8; i++) {
+            services.courses.addCourse(new Course.Builder(new CourseCode("CS", String.valueOf(i)))
+                    .title("Course " + i).credits(2).department("Computer Science")
+                    .semester(Semester.FALL).capacity(498).build());
+        }
+        return services;
+    }
+
+    private final class Services {
+        private final StudentServiceImpl students = new StudentServiceImpl(validator);
+        private final CourseServiceImpl courses = new CourseServiceImpl();
+        private final EnrollmentServiceImpl enrollments = new EnrollmentServiceImpl();
+        private final ImportExportService io =
+                new ImportExportService(students, courses, enrollments, new ReadModel(), validator);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,172 @@
+package edu.ccrm.io;
+
+import static edu.ccrm.Assert.*;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Name;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.StudentServiceImpl;
+import edu.ccrm.util.Validator;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class JournalServiceTest {
+    private final StudentServiceImpl students = new StudentServiceImpl(new Validator());
+    private final CourseServiceImpl courses = new CourseServiceImpl();
+    private final EnrollmentServiceImpl enrollments = new EnrollmentServiceImpl();
+
+    public void testReplayRestoresState() throws Exception {
+        Path file = Files.createTempFile("ccrm-journal", ".log");
+        try {
+            Enrollment graded;
+            Enrollment dropped;
+            JournalService recording = journalTo(file);
+            try {
+                Instructor instructor = new Instructor("I1", new Name("Ada", "Lovelace"), "ada@example.edu", "EMP1", "Computer Science");
+                students.addStudent(new Student("S1", new Name("John", "Doe"), "john@example.edu", "R1"));
+                students.addStudent(new Student("S2", new Name("Jane", "Smith"), "jane@example.edu", "R2"));
+                courses.addCourse(new Course.Builder(new CourseCode("CS", "101"))
+                        .title("Programming").credits(3).department("Computer Science")
+                        .semester(Semester.FALL).capacity(1).instructor(instructor).build());
+                courses.addCourse(new Course.Builder(new CourseCode("MA", "201"))
+                        .title("Calculus").credits(4).department("Mathematics")
+                        .semester(Semester.SPRING).build());
+
+                graded = enrollments.enrollStudent(students.getStudent("S1"), courses.getCourse("CS101"));
+                enrollments.recordGrade(graded.getId(), Grade.B);
+                dropped = enrollments.enrollStudent(students.getStudent("S1"), courses.getCourse("MA201"));
+                enrollments.unenrollStudent(dropped.getId());
+                students.deactivateStudent("S2");
+                courses.deactivateCourse("MA201");
+            } finally {
+                recording.close();
+            }
+
+            StudentServiceImpl replayedStudents = new StudentServiceImpl(new Validator());
+            CourseServiceImpl replayedCourses = new CourseServiceImpl();
+            EnrollmentServiceImpl replayedEnrollments = new EnrollmentServiceImpl();
+            try (JournalService journal = new JournalService(file)) {
+                assertEquals(10, journal.replay(replayedStudents, replayedCourses, replayedEnrollments), "records replayed");
+            }
+
+            Student john = students.getStudent("S1");
+            Student replayedJohn = replayedStudents.getStudent("S1");
+            assertEquals(john.getCreatedAt(), replayedJohn.getCreatedAt(), "S1 created");
+            assertEquals(john.getUpdatedAt(), replayedJohn.getUpdatedAt(), "S1 updated");
+            Student replayedJane = replayedStudents.getStudent("S2");
+            assertFalse(replayedJane.isActive(), "S2 active");
+            assertEquals(students.getStudent("S2").getUpdatedAt(), replayedJane.getUpdatedAt(), "S2 updated");
+
+            Course replayedProgramming = replayedCourses.getCourse("CS101");
+            assertEquals(1, replayedProgramming.getReservedSeats(), "CS101 reserved seats");
+            assertEquals("EMP1", replayedProgramming.getInstructor().getEmployeeId(), "CS101 instructor");
+            Course replayedCalculus = replayedCourses.getCourse("MA201");
+            assertFalse(replayedCalculus.isActive(), "MA201 active");
+            assertEquals(courses.getCourse("MA201").getUpdatedAt(), replayedCalculus.getUpdatedAt(), "MA201 updated");
+
+            Enrollment replayedGraded = replayedEnrollments.getEnrollment(graded.getId());
+            assertEquals(Grade.B, replayedGraded.getGrade(), "grade");
+            assertEquals(graded.getEnrollmentDate(), replayedGraded.getEnrollmentDate(), "enrollment date");
+            assertEquals(graded.getUpdatedAt(), replayedGraded.getUpdatedAt(), "graded enrollment updated");
+            Enrollment replayedDropped = replayedEnrollments.getEnrollment(dropped.getId());
+            assertFalse(replayedDropped.isActive(), "dropped enrollment active");
+            assertEquals(dropped.getUpdatedAt(), replayedDropped.getUpdatedAt(), "dropped enrollment updated");
+            assertEquals(john.calculateGPA(), replayedJohn.calculateGPA(), "S1 GPA");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // A record cut short by a crash is dropped, and appends resume where it started
+    public void testReplayDiscardsTornRecord() throws Exception {
+        Path file = Files.createTempFile("ccrm-journal", ".log");
+        try {
+            JournalService recording = journalTo(file);
+            try {
+                students.addStudent(new Student("S1", new Name("John", "Doe"), "john@example.edu", "R1"));
+                students.addStudent(new Student("S2", new Name("Jane", "Smith"), "jane@example.edu", "R2"));
+            } finally {
+                recording.close();
+            }
+            long intactSize = Files.size(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                // Header of a 100-byte record followed by only part of its payload
+                ByteBuffer torn = ByteBuffer.allocate(20);
+                torn.putInt(100).putInt(12345).put(new byte[12]).flip();
+                channel.write(torn);
+            }
+
+            StudentServiceImpl replayed = new StudentServiceImpl(new Validator());
+            try (JournalService journal = new JournalService(file)) {
+                assertEquals(2, journal.replay(replayed, new CourseServiceImpl(), new EnrollmentServiceImpl()), "records replayed");
+                assertEquals(intactSize, Files.size(file), "journal size after replay");
+
+                replayed.addListener(journal);
+                replayed.addStudent(new Student("S3", new Name("Max", "Mustermann"), "max@example.edu", "R3"));
+            }
+
+            StudentServiceImpl again = new StudentServiceImpl(new Validator());
+            try (JournalService journal = new JournalService(file)) {
+                assertEquals(3, journal.replay(again, new CourseServiceImpl(), new EnrollmentServiceImpl()), "records replayed again");
+            }
+            assertNotNull(again.getStudent("S3"), "student added after replay");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Replay stops at a record whose checksum does not match and drops everything after it
+    public void testReplayStopsAtCorruptRecord() throws Exception {
+        Path file = Files.createTempFile("ccrm-journal", ".log");
+        try {
+            long firstRecordEnd;
+            JournalService recording = journalTo(file);
+            try {
+                students.addStudent(new Student("S1", new Name("John", "Doe"), "john@example.edu", "R1"));
+                firstRecordEnd = Files.size(file);
+                students.addStudent(new Student("S2", new Name("Jane", "Smith"), "jane@example.edu", "R2"));
+                students.addStudent(new Student("S3", new Name("Max", "Mustermann"), "max@example.edu", "R3"));
+            } finally {
+                recording.close();
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Flip a byte in the second record's payload, past its 8-byte header
+                ByteBuffer b = ByteBuffer.allocate(1);
+                long offset = firstRecordEnd + 10;
+                channel.read(b, offset);
+                b.put(0, (byte) ~b.get(0));
+                b.rewind();
+                channel.write(b, offset);
+            }
+
+            StudentServiceImpl replayed = new StudentServiceImpl(new Validator());
+            try (JournalService journal = new JournalService(file)) {
+                assertEquals(1, journal.replay(replayed, new CourseServiceImpl(), new EnrollmentServiceImpl()), "records replayed");
+            }
+            assertNotNull(replayed.getStudent("S1"), "S1 replayed");
+            assertNull(replayed.getStudent("S2"), "S2 replayed");
+            assertNull(replayed.getStudent("S3"), "S3 replayed");
+            assertEquals(firstRecordEnd, Files.size(file), "journal size after replay");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private JournalService journalTo(Path file) throws Exception {
+        JournalService journal = new JournalService(file);
+        students.addListener(journal);
+        courses.addListener(journal);
+        enrollments.addListener(journal);
+        return journal;
+    }
+}
\ No newline at end of file
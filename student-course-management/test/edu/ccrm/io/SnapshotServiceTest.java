@@ -0,0 +1,129 @@
+package edu.ccrm.io;
+
+import static edu.ccrm.Assert.*;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Name;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.service.CourseServiceImpl;
+import edu.ccrm.service.EnrollmentServiceImpl;
+import edu.ccrm.service.StudentServiceImpl;
+import edu.ccrm.util.Validator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+public class SnapshotServiceTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2023, 1, 2, 3, 4, 5, 123456789);
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2024, 6, 7, 8, 9, 10, 987654321);
+
+    private final StudentServiceImpl students = new StudentServiceImpl(new Validator());
+    private final CourseServiceImpl courses = new CourseServiceImpl();
+    private final EnrollmentServiceImpl enrollments = new EnrollmentServiceImpl();
+
+    public void testSaveLoadRoundTrip() throws Exception {
+        Instructor instructor = new Instructor("I1", new Name("Ada", "Lovelace"), "ada@example.edu", "EMP1", "Computer Science");
+        Student john = students.addStudent(new Student("S1", new Name("John", "Doe"), "john@example.edu", "R1"));
+        Student jane = students.addStudent(new Student("S2", new Name("Jane", "Smith"), "jane@example.edu", "R2"));
+        jane.setStatus(StudentStatus.GRADUATED);
+        students.deactivateStudent("S2");
+        Course programming = courses.addCourse(new Course.Builder(new CourseCode("CS", "101"))
+                .title("Programming").credits(3).department("Computer Science")
+                .semester(Semester.FALL).capacity(1).instructor(instructor).build());
+        Course algorithms = courses.addCourse(new Course.Builder(new CourseCode("CS", "301"))
+                .title("Algorithms").credits(4).department("Computer Science")
+                .semester(Semester.SPRING).instructor(instructor).build());
+
+        Enrollment graded = enrollments.enrollStudent(john, programming);
+        enrollments.recordGrade(graded.getId(), Grade.A);
+        Enrollment dropped = enrollments.enrollStudent(john, algorithms);
+        enrollments.unenrollStudent(dropped.getId());
+        courses.deactivateCourse("CS301");
+
+        john.restoreTimestamps(CREATED, UPDATED);
+        programming.restoreUpdatedAt(UPDATED);
+        graded.restoreUpdatedAt(UPDATED);
+
+        Path file = Files.createTempFile("ccrm-snapshot", ".bin");
+        try {
+            assertEquals(6, new SnapshotService(students, courses, enrollments).saveSnapshot(file), "records saved");
+
+            StudentServiceImpl loadedStudents = new StudentServiceImpl(new Validator());
+            CourseServiceImpl loadedCourses = new CourseServiceImpl();
+            EnrollmentServiceImpl loadedEnrollments = new EnrollmentServiceImpl();
+            int loaded = new SnapshotService(loadedStudents, loadedCourses, loadedEnrollments).loadSnapshot(file);
+            assertEquals(6, loaded, "records loaded");
+
+            Student loadedJohn = loadedStudents.getStudent("S1");
+            assertEquals(new Name("John", "Doe"), loadedJohn.getFullName(), "S1 name");
+            assertEquals("R1", loadedJohn.getRegNo(), "S1 reg no");
+            assertEquals(CREATED, loadedJohn.getCreatedAt(), "S1 created");
+            assertEquals(UPDATED, loadedJohn.getUpdatedAt(), "S1 updated");
+            Student loadedJane = loadedStudents.getStudent("S2");
+            assertFalse(loadedJane.isActive(), "S2 active");
+            assertEquals(StudentStatus.GRADUATED, loadedJane.getStatus(), "S2 status");
+            assertEquals(jane.getUpdatedAt(), loadedJane.getUpdatedAt(), "S2 updated");
+
+            Course loadedProgramming = loadedCourses.getCourse("CS101");
+            Course loadedAlgorithms = loadedCourses.getCourse("CS301");
+            assertEquals(UPDATED, loadedProgramming.getUpdatedAt(), "CS101 updated");
+            assertEquals(1, loadedProgramming.getCapacity(), "CS101 capacity");
+            assertEquals(1, loadedProgramming.getReservedSeats(), "CS101 reserved seats");
+            assertFalse(loadedAlgorithms.isActive(), "CS301 active");
+            assertEquals(Semester.SPRING, loadedAlgorithms.getSemester(), "CS301 semester");
+
+            // One instructor shared by both courses, as before saving
+            Instructor loadedInstructor = loadedProgramming.getInstructor();
+            assertNotNull(loadedInstructor, "CS101 instructor");
+            assertTrue(loadedInstructor == loadedAlgorithms.getInstructor(), "instructor shared");
+            assertEquals("EMP1", loadedInstructor.getEmployeeId(), "instructor employee ID");
+            assertEquals(2, loadedInstructor.getAssignedCourses().size(), "instructor courses");
+
+            Enrollment loadedGraded = loadedEnrollments.getEnrollment(graded.getId());
+            assertEquals(Grade.A, loadedGraded.getGrade(), "grade");
+            assertEquals(graded.getEnrollmentDate(), loadedGraded.getEnrollmentDate(), "enrollment date");
+            assertEquals(UPDATED, loadedGraded.getUpdatedAt(), "enrollment updated");
+            assertFalse(loadedEnrollments.getEnrollment(dropped.getId()).isActive(), "dropped enrollment active");
+            assertEquals(john.calculateGPA(), loadedJohn.calculateGPA(), "S1 GPA");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void testLoadRejectsOtherFiles() throws Exception {
+        Path file = Files.createTempFile("ccrm-snapshot", ".bin");
+        try {
+            Files.write(file, "ID,RegNo\n".getBytes());
+            SnapshotService snapshots = new SnapshotService(students, courses, enrollments);
+            IOException e = assertThrows(IOException.class, () -> snapshots.loadSnapshot(file));
+            assertTrue(e.getMessage().startsWith("Not a snapshot file"), "message: " + e.getMessage());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void testSaveReplacesPreviousSnapshot() throws Exception {
+        students.addStudent(new Student("S1", new Name("John", "Doe"), "john@example.edu", "R1"));
+        Path file = Files.createTempFile("ccrm-snapshot", ".bin");
+        try {
+            SnapshotService snapshots = new SnapshotService(students, courses, enrollments);
+            snapshots.saveSnapshot(file);
+            students.addStudent(new Student("S2", new Name("Jane", "Smith"), "jane@example.edu", "R2"));
+            snapshots.saveSnapshot(file);
+
+            StudentServiceImpl loaded = new StudentServiceImpl(new Validator());
+            new SnapshotService(loaded, new CourseServiceImpl(), new EnrollmentServiceImpl()).loadSnapshot(file);
+            assertEquals(2, loaded.getAllStudents().size(), "students loaded");
+            assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".tmp")), "temporary file left behind");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package edu.ccrm.service;
+
+import static edu.ccrm.Assert.*;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.CourseCode;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Name;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.exception.CourseFullException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class EnrollmentServiceImplTest {
+    private final EnrollmentServiceImpl service = new EnrollmentServiceImpl();
+
+    public void testFullCourseWaitlistsStudent() throws Exception {
+        Course course = course("CS", "101", 2);
+        service.enrollStudent(student("S1"), course);
+        service.enrollStudent(student("S2"), course);
+
+        Student third = student("S3");
+        CourseFullException e = assertThrows(CourseFullException.class, () -> service.enrollStudent(third, course));
+
+        assertEquals(1, e.getWaitlistPosition(), "waitlist position");
+        assertEquals(Arrays.asList(third), service.getWaitlist("CS101"), "waitlist");
+        assertEquals(2, course.getReservedSeats(), "reserved seats");
+        assertEquals(0, course.getAvailableSeats(), "available seats");
+    }
+
+    public void testUnenrollPromotesWaitlistInOrder() throws Exception {
+        Course course = course("CS", "101", 1);
+        Enrollment first = service.enrollStudent(student("S1"), course);
+        Student second = student("S2");
+        Student third = student("S3");
+        assertThrows(CourseFullException.class, () -> service.enrollStudent(second, course));
+        assertThrows(CourseFullException.class, () -> service.enrollStudent(third, course));
+
+        service.unenrollStudent(first.getId());
+
+        List<Enrollment> enrolled = activeEnrollments("CS101");
+        assertEquals(1, enrolled.size(), "active enrollments");
+        assertEquals(second, enrolled.get(0).getStudent(), "promoted student");
+        assertEquals(Arrays.asList(third), service.getWaitlist("CS101"), "remaining waitlist");
+        assertEquals(1, course.getReservedSeats(), "reserved seats");
+    }
+
+    public void testPromotionSkipsStudentOverCreditLimit() throws Exception {
+        Course course = course("CS", "101", 1);
+        Enrollment first = service.enrollStudent(student("S1"), course);
+        Student busy = student("S2");
+        Student next = student("S3");
+        assertThrows(CourseFullException.class, () -> service.enrollStudent(busy, course));
+        assertThrows(CourseFullException.class, () -> service.enrollStudent(next, course));
+
+        // Seven 3-credit courses reach the 21-credit cap for the semester
+        for (int i = 0; i < 7; i++) {
+            service.enrollStudent(busy, course("MA", "20" + i, 0));
+        }
+        service.unenrollStudent(first.getId());
+
+        List<Enrollment> enrolled = activeEnrollments("CS101");
+        assertEquals(1, enrolled.size(), "active enrollments");
+        assertEquals(next, enrolled.get(0).getStudent(), "promoted student");
+
+        List<BatchResult.Outcome<Student>> skipped = service.getSkippedWaitlist("CS101");
+        assertEquals(1, skipped.size(), "skipped students");
+        assertEquals(busy, skipped.get(0).getItem(), "skipped student");
+        assertTrue(skipped.get(0).getMessage().contains("credit limit"), "skip reason: " + skipped.get(0).getMessage());
+    }
+
+    public void testConcurrentEnrollmentsNeverExceedCapacity() throws Exception {
+        Course course = course("CS", "101", 10);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        try {
+                            service.enrollStudent(student("S" + thread + "-" + i), course);
+                        } catch (CourseFullException e) {
+                            // Waitlisted
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(10, activeEnrollments("CS101").size(), "active enrollments");
+        assertEquals(10, course.getReservedSeats(), "reserved seats");
+        assertEquals(390, service.getWaitlist("CS101").size(), "waitlist");
+    }
+
+    public void testRestoreReservesSeatsInRowOrder() {
+        Course full = course("CS", "101", 1);
+        Course open = course("CS", "102", 0);
+        Student a = student("A");
+        Student b = student("B");
+
+        // A's rows are not contiguous; the seat goes to the first row that asks for it
+        BatchResult<Enrollment> result = service.restoreEnrollments(Arrays.asList(
+                new Enrollment("E1", b, full),
+                new Enrollment("E2", a, open),
+                new Enrollment("E3", a, full)));
+
+        List<BatchResult.Outcome<Enrollment>> outcomes = result.getOutcomes();
+        assertEquals("E1", outcomes.get(0).getItem().getId(), "first outcome");
+        assertTrue(outcomes.get(0).isAccepted(), "E1 accepted");
+        assertTrue(outcomes.get(1).isAccepted(), "E2 accepted");
+        assertFalse(outcomes.get(2).isAccepted(), "E3 accepted");
+        assertEquals("Course CS101 is full", outcomes.get(2).getMessage(), "E3 message");
+    }
+
+    private List<Enrollment> activeEnrollments(String courseCode) {
+        List<Enrollment> active = new ArrayList<>();
+        for (Enrollment enrollment : service.getEnrollmentsByCourse(courseCode)) {
+            if (enrollment.isActive()) active.add(enrollment);
+        }
+        return active;
+    }
+
+    // A capacity of 0 means unlimited
+    private static Course course(String prefix, String number, int capacity) {
+        return new Course.Builder(new CourseCode(prefix, number))
+                .title(prefix + number)
+                .credits(3)
+                .department(prefix)
+                .semester(Semester.FALL)
+                .capacity(capacity)
+                .build();
+    }
+
+    private static Student student(String id) {
+        return new Student(id, new Name("First" + id, "Last" + id), id.toLowerCase() + "@example.edu", "R" + id);
+    }
+}
\ No newline at end of file